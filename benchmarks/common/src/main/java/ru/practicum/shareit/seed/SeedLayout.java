@@ -0,0 +1,26 @@
+package ru.practicum.shareit.seed;
+
+/**
+ * What the data generator and the load test agree on. The default sizes and skews are those of the seed
+ * profile. Users and items are inserted into empty tables, so the user or item of rank k has id k + 1,
+ * and owners and item popularity are drawn by rank from a {@link Zipf} with the given exponent.
+ */
+public final class SeedLayout {
+    public static final String PREFIX = "shareit.seed.";
+    public static final String USERS = "users";
+    public static final String ITEMS = "items";
+    public static final String OWNER_EXPONENT = "owner-exponent";
+    public static final String ITEM_EXPONENT = "item-exponent";
+
+    public static final int DEFAULT_USERS = 1000;
+    public static final int DEFAULT_ITEMS = 10000;
+    public static final double DEFAULT_OWNER_EXPONENT = 1.2;
+    public static final double DEFAULT_ITEM_EXPONENT = 1.1;
+
+    private SeedLayout() {
+    }
+
+    public static long id(int rank) {
+        return rank + 1L;
+    }
+}
@@ -0,0 +1,39 @@
+#!/usr/bin/env bash
+# Seeds a fresh in-memory H2 server, starts the gateway in front of it and runs the load test against it.
+# Usage: benchmarks/load/load-test.sh [load test options, e.g. --threads=64 --duration=120]
+# SEED_ARGS, SERVER_ARGS and GATEWAY_ARGS pass extra Spring options, e.g.
+#   SEED_ARGS="--shareit.seed.items=100000 --shareit.seed.bookings=500000" benchmarks/load/load-test.sh
+# The load test gets SEED_ARGS too, so its ids and skew follow the seeded sizes.
+# The server runs from the server benchmarks jar, which carries the data generator.
+#   GATEWAY_ARGS="--shareit.rate-limit.enabled=false" benchmarks/load/load-test.sh
+# JAVA selects the JVM of the server, the gateway and the load test.
+# Set SKIP_BUILD=1 to reuse the jars already in target.
+set -euo pipefail
+
+cd "$(dirname "$0")/../.."
+if [ -z "${SKIP_BUILD:-}" ]; then
+  mvn -B -q package -DskipTests
+fi
+
+QUIET="--logging.level.root=WARN"
+LOGS=benchmarks/load/target
+
+${JAVA:-java} -cp benchmarks/server/target/shareit-server-benchmarks.jar ru.practicum.shareit.ShareItServer \
+  --spring.profiles.active=test,seed,bench $QUIET ${SEED_ARGS:-} ${SERVER_ARGS:-} > $LOGS/server.log 2>&1 &
+SERVER=$!
+${JAVA:-java} -jar gateway/target/shareit-gateway-*-exec.jar $QUIET \
+  --logging.level.org.springframework.web.client.RestTemplate=WARN ${GATEWAY_ARGS:-} > $LOGS/gateway.log 2>&1 &
+GATEWAY=$!
+trap 'kill $SERVER $GATEWAY 2>/dev/null' EXIT
+
+for port in 9090 8080; do
+  until curl -sf "localhost:$port/actuator/health" > /dev/null; do
+    if ! kill -0 $SERVER $GATEWAY 2>/dev/null; then
+      echo "Server or gateway exited, see $LOGS" >&2
+      exit 1
+    fi
+    sleep 1
+  done
+done
+
+${JAVA:-java} -jar benchmarks/load/target/shareit-load-test.jar ${SEED_ARGS:-} "$@"
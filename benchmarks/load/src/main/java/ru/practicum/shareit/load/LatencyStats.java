@@ -0,0 +1,78 @@
+package ru.practicum.shareit.load;
+
+import java.util.Arrays;
+
+/**
+ * Outcomes and latencies of one endpoint. Every worker keeps its own instances, merged after the run,
+ * so recording needs no synchronization. Latencies are kept for successful responses only: rejected
+ * and failed calls return early and would make the percentiles look better than the service is.
+ */
+final class LatencyStats {
+    private long[] latencies = new long[1024];
+    private int ok;
+    private int clientErrors;
+    private int tooManyRequests;
+    private int failures;
+
+    void record(int status, long nanos) {
+        if (status < 400) {
+            if (ok == latencies.length) {
+                latencies = Arrays.copyOf(latencies, ok * 2);
+            }
+            latencies[ok++] = nanos;
+        } else if (status == 429) {
+            tooManyRequests++;
+        } else if (status < 500) {
+            clientErrors++;
+        } else {
+            failures++;
+        }
+    }
+
+    void recordFailure() {
+        failures++;
+    }
+
+    void merge(LatencyStats other) {
+        if (ok + other.ok > latencies.length) {
+            latencies = Arrays.copyOf(latencies, ok + other.ok);
+        }
+        System.arraycopy(other.latencies, 0, latencies, ok, other.ok);
+        ok += other.ok;
+        clientErrors += other.clientErrors;
+        tooManyRequests += other.tooManyRequests;
+        failures += other.failures;
+    }
+
+    int count() {
+        return ok + clientErrors + tooManyRequests + failures;
+    }
+
+    int ok() {
+        return ok;
+    }
+
+    int clientErrors() {
+        return clientErrors;
+    }
+
+    int tooManyRequests() {
+        return tooManyRequests;
+    }
+
+    int failures() {
+        return failures;
+    }
+
+    /**
+     * Nearest-rank percentile of the successful latencies in nanoseconds, or 0 when there are none.
+     */
+    long percentile(double percent) {
+        if (ok == 0) {
+            return 0;
+        }
+        Arrays.sort(latencies, 0, ok);
+        int rank = (int) Math.ceil(percent / 100 * ok);
+        return latencies[Math.max(rank, 1) - 1];
+    }
+}
@@ -0,0 +1,151 @@
+package ru.practicum.shareit.load;
+
+import ru.practicum.shareit.seed.SeedLayout;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Drives the gateway with the {@link Workload} mix from a fixed number of closed-loop workers: each worker
+ * sends its next request as soon as the previous one completes. Nothing is recorded during the warmup.
+ * Prints count, outcomes, throughput and p50/p95/p99/max latency per endpoint and in total.
+ * <p>
+ * Options, all optional: {@code --gateway=http://localhost:8080 --threads=32 --warmup=10 --duration=60
+ * --users=1000 --items=10000 --owner-exponent=1.2 --item-exponent=1.1 --random-seed=42}; durations are
+ * in seconds. Users, items and exponents default to those of {@link SeedLayout} and must match the sizes
+ * the server was seeded with, so the seed's own {@code --shareit.seed.*} options are accepted as well:
+ * those naming the layout set it, the others only matter to the generator and are ignored.
+ */
+public final class LoadTest {
+    private static final Map<String, String> DEFAULTS = Map.of(
+            "gateway", "http://localhost:8080",
+            "threads", "32",
+            "warmup", "10",
+            "duration", "60",
+            SeedLayout.USERS, String.valueOf(SeedLayout.DEFAULT_USERS),
+            SeedLayout.ITEMS, String.valueOf(SeedLayout.DEFAULT_ITEMS),
+            SeedLayout.OWNER_EXPONENT, String.valueOf(SeedLayout.DEFAULT_OWNER_EXPONENT),
+            SeedLayout.ITEM_EXPONENT, String.valueOf(SeedLayout.DEFAULT_ITEM_EXPONENT),
+            "random-seed", "42");
+    private static final Set<String> SEED_OPTIONS = Set.of(SeedLayout.USERS, SeedLayout.ITEMS,
+            SeedLayout.OWNER_EXPONENT, SeedLayout.ITEM_EXPONENT);
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = options(args);
+        int threads = Integer.parseInt(options.get("threads"));
+        long warmup = Long.parseLong(options.get("warmup"));
+        long duration = Long.parseLong(options.get("duration"));
+        long seed = Long.parseLong(options.get("random-seed"));
+        Workload workload = new Workload(options.get("gateway"), Integer.parseInt(options.get(SeedLayout.USERS)),
+                Integer.parseInt(options.get(SeedLayout.ITEMS)),
+                Double.parseDouble(options.get(SeedLayout.OWNER_EXPONENT)),
+                Double.parseDouble(options.get(SeedLayout.ITEM_EXPONENT)));
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        System.out.printf("%d workers against %s: %d s warmup, %d s measured%n", threads, options.get("gateway"),
+                warmup, duration);
+        long measureFrom = System.nanoTime() + Duration.ofSeconds(warmup).toNanos();
+        long measureTo = measureFrom + Duration.ofSeconds(duration).toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Map<String, LatencyStats>>> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Random random = new Random(seed + i);
+            workers.add(executor.submit(() -> run(client, workload, random, measureFrom, measureTo)));
+        }
+        Map<String, LatencyStats> stats = new LinkedHashMap<>();
+        workload.endpoints().forEach(endpoint -> stats.put(endpoint, new LatencyStats()));
+        for (Future<Map<String, LatencyStats>> worker : workers) {
+            worker.get().forEach((endpoint, workerStats) -> stats.get(endpoint).merge(workerStats));
+        }
+        executor.shutdown();
+        report(stats, duration);
+    }
+
+    private static Map<String, LatencyStats> run(HttpClient client, Workload workload, Random random,
+                                                 long measureFrom, long measureTo) throws InterruptedException {
+        Map<String, LatencyStats> stats = new HashMap<>();
+        while (true) {
+            Workload.Call call = workload.next(random);
+            long started = System.nanoTime();
+            if (started >= measureTo) {
+                return stats;
+            }
+            int status;
+            try {
+                status = client.send(call.request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (IOException e) {
+                status = -1;
+            }
+            long finished = System.nanoTime();
+            if (started < measureFrom) {
+                continue;
+            }
+            LatencyStats endpointStats = stats.computeIfAbsent(call.endpoint, endpoint -> new LatencyStats());
+            if (status < 0) {
+                endpointStats.recordFailure();
+            } else {
+                endpointStats.record(status, finished - started);
+            }
+        }
+    }
+
+    private static void report(Map<String, LatencyStats> stats, long duration) {
+        LatencyStats total = new LatencyStats();
+        System.out.printf("%-20s %8s %8s %6s %6s %6s %9s %8s %8s %8s %8s%n", "endpoint", "count", "ok", "4xx",
+                "429", "5xx", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        stats.forEach((endpoint, endpointStats) -> {
+            print(endpoint, endpointStats, duration);
+            total.merge(endpointStats);
+        });
+        print("total", total, duration);
+    }
+
+    private static void print(String endpoint, LatencyStats stats, long duration) {
+        System.out.printf("%-20s %8d %8d %6d %6d %6d %9.1f %8.1f %8.1f %8.1f %8.1f%n", endpoint, stats.count(),
+                stats.ok(), stats.clientErrors(), stats.tooManyRequests(), stats.failures(),
+                (double) stats.count() / duration, millis(stats.percentile(50)), millis(stats.percentile(95)),
+                millis(stats.percentile(99)), millis(stats.percentile(100)));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static Map<String, String> options(String[] args) {
+        Map<String, String> options = new HashMap<>(DEFAULTS);
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            String name = arg.startsWith("--") && separator > 2 ? arg.substring(2, separator) : null;
+            if (name != null && name.startsWith(SeedLayout.PREFIX)) {
+                name = name.substring(SeedLayout.PREFIX.length());
+                if (!SEED_OPTIONS.contains(name)) {
+                    continue;
+                }
+            }
+            if (name == null || !DEFAULTS.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown option " + arg + ", expected --name=value with name one of "
+                        + DEFAULTS.keySet());
+            }
+            options.put(name, arg.substring(separator + 1));
+        }
+        return options;
+    }
+}
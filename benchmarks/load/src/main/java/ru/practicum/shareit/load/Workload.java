@@ -0,0 +1,159 @@
+package ru.practicum.shareit.load;
+
+import ru.practicum.shareit.seed.SeedLayout;
+import ru.practicum.shareit.seed.Zipf;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * The request mix sent to the gateway. Ids assume a database filled by the server's seed profile with the
+ * same sizes and exponents: users, owners and items are picked by rank as laid out in {@link SeedLayout},
+ * with the skew the generator used. Weights are out of 100.
+ */
+final class Workload {
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    private static final List<String> SEARCH_TEXTS = List.of("дрель", "пила", "палатка", "лестница", "проектор",
+            "аккумуляторная", "складная", "drill", "cordless", "tent", "нет такого");
+    private static final List<String> STATES = List.of("ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED");
+
+    private final List<Operation> operations = List.of(
+            new Operation("GET /items/{id}", 35, this::item),
+            new Operation("GET /items/search", 15, this::search),
+            new Operation("GET /items", 10, this::ownerItems),
+            new Operation("GET /bookings", 15, this::bookings),
+            new Operation("GET /bookings/owner", 10, this::ownerBookings),
+            new Operation("GET /requests/all", 5, this::requests),
+            new Operation("GET /users/{id}", 5, this::user),
+            new Operation("POST /bookings", 5, this::book));
+
+    private final String gateway;
+    private final int users;
+    private final Zipf owners;
+    private final Zipf popularity;
+
+    Workload(String gateway, int users, int items, double ownerExponent, double itemExponent) {
+        this.gateway = gateway;
+        this.users = users;
+        this.owners = new Zipf(users, ownerExponent);
+        this.popularity = new Zipf(items, itemExponent);
+    }
+
+    List<String> endpoints() {
+        return operations.stream().map(Operation::getEndpoint).collect(Collectors.toList());
+    }
+
+    Call next(Random random) {
+        int roll = random.nextInt(100);
+        for (Operation operation : operations) {
+            roll -= operation.weight;
+            if (roll < 0) {
+                return new Call(operation.endpoint, operation.request.build(random));
+            }
+        }
+        throw new IllegalStateException("Weights do not add up to 100");
+    }
+
+    private HttpRequest item(Random random) {
+        return get("/items/" + SeedLayout.id(popularity.sample(random)), anyUser(random));
+    }
+
+    private HttpRequest search(Random random) {
+        String text = SEARCH_TEXTS.get(random.nextInt(SEARCH_TEXTS.size()));
+        return get("/items/search?text=" + URLEncoder.encode(text, StandardCharsets.UTF_8) + "&from=0&size=20",
+                anyUser(random));
+    }
+
+    private HttpRequest ownerItems(Random random) {
+        return get("/items?from=0&size=20", owner(random));
+    }
+
+    private HttpRequest bookings(Random random) {
+        return get("/bookings?state=" + STATES.get(random.nextInt(STATES.size())) + "&from=0&size=20",
+                anyUser(random));
+    }
+
+    private HttpRequest ownerBookings(Random random) {
+        return get("/bookings/owner?state=" + STATES.get(random.nextInt(STATES.size())) + "&from=0&size=20",
+                owner(random));
+    }
+
+    private HttpRequest requests(Random random) {
+        return get("/requests/all?from=0&size=20", anyUser(random));
+    }
+
+    private HttpRequest user(Random random) {
+        return get("/users/" + anyUser(random), anyUser(random));
+    }
+
+    /**
+     * Books a popular item far enough ahead that most requests do not collide with each other.
+     */
+    private HttpRequest book(Random random) {
+        LocalDateTime start = LocalDateTime.now().plusDays(1 + random.nextInt(365)).plusHours(random.nextInt(24));
+        LocalDateTime end = start.plusHours(1 + random.nextInt(48));
+        String body = "{\"itemId\":" + SeedLayout.id(popularity.sample(random)) + ",\"start\":\""
+                + DATE_TIME.format(start) + "\",\"end\":\"" + DATE_TIME.format(end) + "\"}";
+        return request("/bookings", anyUser(random))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private long anyUser(Random random) {
+        return SeedLayout.id(random.nextInt(users));
+    }
+
+    private long owner(Random random) {
+        return SeedLayout.id(owners.sample(random));
+    }
+
+    private HttpRequest get(String path, long userId) {
+        return request(path, userId).GET().build();
+    }
+
+    private HttpRequest.Builder request(String path, long userId) {
+        return HttpRequest.newBuilder(URI.create(gateway + path))
+                .timeout(TIMEOUT)
+                .header("X-Sharer-User-Id", String.valueOf(userId));
+    }
+
+    static final class Call {
+        final String endpoint;
+        final HttpRequest request;
+
+        Call(String endpoint, HttpRequest request) {
+            this.endpoint = endpoint;
+            this.request = request;
+        }
+    }
+
+    private interface RequestBuilder {
+        HttpRequest build(Random random);
+    }
+
+    private static final class Operation {
+        private final String endpoint;
+        private final int weight;
+        private final RequestBuilder request;
+
+        private Operation(String endpoint, int weight, RequestBuilder request) {
+            this.endpoint = endpoint;
+            this.weight = weight;
+            this.request = request;
+        }
+
+        private String getEndpoint() {
+            return endpoint;
+        }
+    }
+}
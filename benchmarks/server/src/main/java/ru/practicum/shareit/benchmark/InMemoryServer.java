@@ -0,0 +1,163 @@
+package ru.practicum.shareit.benchmark;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.mapper.BookingMapperImpl;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.mapper.CommentMapperImpl;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.mapper.ItemMapperImpl;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.DbItemSearch;
+import ru.practicum.shareit.item.search.InMemoryItemSearch;
+import ru.practicum.shareit.item.search.ItemSearch;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.mapper.UserMapper;
+import ru.practicum.shareit.user.mapper.UserMapperImpl;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.user.service.UserServiceImpl;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * The item, booking and user services over stubbed repositories that answer from a {@link SeedSnapshot} of
+ * a {@link SeededServer}, so the services run without a database, JPA or transactions. The stubs answer only
+ * the queries of the benchmarked calls; any other repository method throws. The MapStruct mappers and the
+ * item search are wired by an application context that holds nothing else. The item calendar, the item view
+ * cache and the entity manager are not used by the benchmarked calls and are left out.
+ */
+final class InMemoryServer implements Services {
+    private static final ApplicationEventPublisher NO_EVENTS = event -> {
+    };
+
+    private final AnnotationConfigApplicationContext context;
+    private final Map<Class<?>, Object> services = new HashMap<>();
+
+    private InMemoryServer(SeedSnapshot snapshot, String searchMode) {
+        UserRepository userRepository = stub(UserRepository.class, Map.of(
+                "findById", args -> snapshot.findUser((Long) args[0])));
+        ItemRepository itemRepository = stub(ItemRepository.class, Map.of(
+                "findAllById", args -> snapshot.findItemsById(iterable(args[0])),
+                "findAllByOwnerIdOrderByIdAsc", args -> snapshot.findItemsByOwner((Long) args[0], (Pageable) args[1]),
+                "findAvailableAfter", args -> snapshot.findAvailableItemsAfter((Long) args[0], (Pageable) args[1]),
+                "search", args -> snapshot.searchItems((String) args[0], (Pageable) args[1])));
+        BookingRepository bookingRepository = stub(BookingRepository.class, Map.of(
+                "findAllByOwner", args -> snapshot.findBookingsByOwner((Long) args[0], (LocalDateTime) args[1],
+                        (Long) args[2], booking -> true, (Pageable) args[3]),
+                "findAllByOwnerAndStatus", args -> snapshot.findBookingsByOwner((Long) args[0],
+                        (LocalDateTime) args[1], (Long) args[2], booking -> booking.getStatus() == args[3],
+                        (Pageable) args[4]),
+                "findCurrentByOwner", args -> snapshot.findBookingsByOwner((Long) args[0], (LocalDateTime) args[1],
+                        (Long) args[2], booking -> isCurrent(booking, (LocalDateTime) args[3]), (Pageable) args[4]),
+                "findPastByOwner", args -> snapshot.findBookingsByOwner((Long) args[0], (LocalDateTime) args[1],
+                        (Long) args[2], booking -> booking.getEnd().isBefore((LocalDateTime) args[3]),
+                        (Pageable) args[4]),
+                "findFutureByOwner", args -> snapshot.findBookingsByOwner((Long) args[0], (LocalDateTime) args[1],
+                        (Long) args[2], booking -> booking.getStart().isAfter((LocalDateTime) args[3]),
+                        (Pageable) args[4]),
+                "findLastBookingsByItemIds", args -> snapshot.findLastBookings(collection(args[0]),
+                        (LocalDateTime) args[1], (String) args[2]),
+                "findNextBookingsByItemIds", args -> snapshot.findNextBookings(collection(args[0]),
+                        (LocalDateTime) args[1], (String) args[2])));
+
+        context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources()
+                .addFirst(new MapPropertySource("bench", Map.of("shareit.search.mode", searchMode)));
+        context.register(UserMapperImpl.class, ItemMapperImpl.class, BookingMapperImpl.class,
+                CommentMapperImpl.class);
+        context.registerBean(DbItemSearch.class, () -> new DbItemSearch(itemRepository));
+        context.registerBean(InMemoryItemSearch.class, () -> new InMemoryItemSearch(itemRepository));
+        context.refresh();
+
+        UserMapper userMapper = context.getBean(UserMapper.class);
+        ItemMapper itemMapper = context.getBean(ItemMapper.class);
+        BookingMapper bookingMapper = context.getBean(BookingMapper.class);
+        UserService userService = new UserServiceImpl(userRepository, userMapper, null, NO_EVENTS);
+        ItemService itemService = new ItemServiceImpl(itemRepository, bookingRepository,
+                stub(CommentRepository.class, Map.of()), userService, stub(ItemRequestRepository.class, Map.of()),
+                context.getBean(ItemSearch.class), null, null, NO_EVENTS, userMapper, itemMapper, bookingMapper,
+                context.getBean(CommentMapper.class));
+        services.put(UserService.class, userService);
+        services.put(ItemService.class, itemService);
+        services.put(BookingService.class, new BookingServiceImpl(bookingRepository, null, NO_EVENTS, itemService,
+                userService, bookingMapper, userMapper, itemMapper));
+    }
+
+    static InMemoryServer start(String searchMode) {
+        SeedSnapshot snapshot;
+        try (SeededServer seeded = SeededServer.start("db")) {
+            snapshot = SeedSnapshot.load(seeded.getBean(JdbcTemplate.class));
+        }
+        return new InMemoryServer(snapshot, searchMode);
+    }
+
+    @Override
+    public <T> T getBean(Class<T> type) {
+        Object service = services.get(type);
+        if (service == null) {
+            throw new IllegalArgumentException(type.getSimpleName() + " is not built in memory");
+        }
+        return type.cast(service);
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+
+    private static boolean isCurrent(Booking booking, LocalDateTime now) {
+        return booking.getStart().isBefore(now) && booking.getEnd().isAfter(now);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Iterable<Long> iterable(Object ids) {
+        return (Iterable<Long>) ids;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Collection<Long> collection(Object ids) {
+        return (Collection<Long>) ids;
+    }
+
+    /**
+     * A repository whose methods answer by name from the given functions of their arguments.
+     */
+    private static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        Object repository = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    Function<Object[], Object> answer = answers.get(method.getName());
+                    if (answer != null) {
+                        return answer.apply(args);
+                    }
+                    switch (method.getName()) {
+                        case "toString":
+                            return "stub " + type.getSimpleName();
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName()
+                                    + " is not stubbed");
+                    }
+                });
+        return type.cast(repository);
+    }
+}
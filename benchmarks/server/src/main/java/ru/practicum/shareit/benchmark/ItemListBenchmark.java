@@ -0,0 +1,60 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code ItemService.getAllItemByUser} for the heaviest owner and for a typical one, over the JPA repositories
+ * and over stubbed repositories in memory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class ItemListBenchmark {
+    @Param({Services.JPA, Services.MEMORY})
+    public String repositories;
+
+    @Param({"1", "100"})
+    public long ownerId;
+
+    @Param({"10", "50"})
+    public int size;
+
+    private Services server;
+    private ItemService itemService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        server = Services.start(repositories, "db");
+        itemService = server.getBean(ItemService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    public Collection<ItemDto> getAllItemByUser() {
+        return itemService.getAllItemByUser(ownerId, 0, size);
+    }
+}
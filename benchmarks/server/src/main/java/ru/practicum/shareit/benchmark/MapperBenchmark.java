@@ -0,0 +1,118 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingDtoForItem;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.mapper.BookingMapperImpl;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.mapper.ItemMapperImpl;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.mapper.UserMapperImpl;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The MapStruct mappers over a page of entities built in memory, without a database. The generated mappers
+ * inject each other, so they are wired by an application context that holds nothing else.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    @Param({"20", "100"})
+    public int size;
+
+    private AnnotationConfigApplicationContext mappers;
+    private BookingMapper bookingMapper;
+    private ItemMapper itemMapper;
+    private List<Booking> bookings;
+    private List<Item> items;
+    private List<ItemDto> itemDtos;
+
+    @Setup
+    public void setUp() {
+        mappers = new AnnotationConfigApplicationContext(UserMapperImpl.class, ItemMapperImpl.class,
+                BookingMapperImpl.class);
+        bookingMapper = mappers.getBean(BookingMapper.class);
+        itemMapper = mappers.getBean(ItemMapper.class);
+        bookings = new ArrayList<>(size);
+        items = new ArrayList<>(size);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 12, 0);
+        for (long id = 1; id <= size; id++) {
+            User owner = new User(id, "owner" + id, "owner" + id + "@shareit.ru", 0);
+            User booker = new User(id + size, "booker" + id, "booker" + id + "@shareit.ru", 0);
+            Item item = new Item(id, "Дрель " + id, "Аккумуляторная дрель", true, owner, null, 0);
+            items.add(item);
+            bookings.add(new Booking(id, start.plusDays(id), start.plusDays(id + 1), item, booker, Status.APPROVED, 0));
+        }
+        itemDtos = mapItems();
+    }
+
+    @TearDown
+    public void tearDown() {
+        mappers.close();
+    }
+
+    @Benchmark
+    public List<BookingResponseDto> bookingToDto() {
+        List<BookingResponseDto> page = new ArrayList<>(size);
+        for (Booking booking : bookings) {
+            page.add(bookingMapper.bookingToDto(booking));
+        }
+        return page;
+    }
+
+    @Benchmark
+    public List<BookingDtoForItem> bookingToDtoForItem() {
+        List<BookingDtoForItem> page = new ArrayList<>(size);
+        for (Booking booking : bookings) {
+            page.add(bookingMapper.bookingToDtoForItem(booking));
+        }
+        return page;
+    }
+
+    @Benchmark
+    public List<ItemDto> itemToDto() {
+        return mapItems();
+    }
+
+    @Benchmark
+    public List<ItemDto> copyItemDto() {
+        List<ItemDto> page = new ArrayList<>(size);
+        for (ItemDto itemDto : itemDtos) {
+            page.add(itemMapper.copy(itemDto));
+        }
+        return page;
+    }
+
+    private List<ItemDto> mapItems() {
+        List<ItemDto> page = new ArrayList<>(size);
+        for (Item item : items) {
+            page.add(itemMapper.itemToDto(item));
+        }
+        return page;
+    }
+}
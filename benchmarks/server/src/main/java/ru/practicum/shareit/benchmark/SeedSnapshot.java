@@ -0,0 +1,215 @@
+package ru.practicum.shareit.benchmark;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingShort;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Users, items and bookings of a seeded database, copied into memory and grouped the way the stubbed
+ * repositories query them. Each query keeps the filters and the order of the JPQL or SQL query it stands for.
+ */
+final class SeedSnapshot {
+    private static final Comparator<Booking> LATEST_FIRST = Comparator.comparing(Booking::getStart)
+            .thenComparing(Booking::getId)
+            .reversed();
+    private static final Comparator<Booking> EARLIEST_FIRST = Comparator.comparing(Booking::getStart)
+            .thenComparing(Booking::getId);
+
+    private final Map<Long, User> users = new HashMap<>();
+    private final List<Item> items = new ArrayList<>();
+    private final Map<Long, Item> itemsById = new HashMap<>();
+    private final Map<Long, List<Item>> itemsByOwner = new HashMap<>();
+    private final Map<Long, List<Booking>> bookingsByOwner = new HashMap<>();
+    private final Map<Long, List<Booking>> bookingsByItem = new HashMap<>();
+
+    private SeedSnapshot() {
+    }
+
+    static SeedSnapshot load(JdbcTemplate jdbcTemplate) {
+        SeedSnapshot snapshot = new SeedSnapshot();
+        jdbcTemplate.query("SELECT id, name, email, version FROM users", row -> {
+            User user = new User(row.getLong("id"), row.getString("name"), row.getString("email"),
+                    row.getLong("version"));
+            snapshot.users.put(user.getId(), user);
+        });
+        jdbcTemplate.query("SELECT id, name, description, is_available, owner_id, version FROM items ORDER BY id",
+                row -> {
+                    Item item = new Item(row.getLong("id"), row.getString("name"), row.getString("description"),
+                            row.getBoolean("is_available"), snapshot.users.get(row.getLong("owner_id")), null,
+                            row.getLong("version"));
+                    snapshot.items.add(item);
+                    snapshot.itemsById.put(item.getId(), item);
+                    snapshot.itemsByOwner.computeIfAbsent(item.getOwner().getId(), owner -> new ArrayList<>())
+                            .add(item);
+                });
+        jdbcTemplate.query("SELECT id, start_date, end_date, item_id, booker_id, status, version FROM bookings",
+                row -> {
+                    Item item = snapshot.itemsById.get(row.getLong("item_id"));
+                    Booking booking = new Booking(row.getLong("id"), row.getTimestamp("start_date").toLocalDateTime(),
+                            row.getTimestamp("end_date").toLocalDateTime(), item,
+                            snapshot.users.get(row.getLong("booker_id")), Status.valueOf(row.getString("status")),
+                            row.getLong("version"));
+                    snapshot.bookingsByOwner.computeIfAbsent(item.getOwner().getId(), owner -> new ArrayList<>())
+                            .add(booking);
+                    snapshot.bookingsByItem.computeIfAbsent(item.getId(), id -> new ArrayList<>()).add(booking);
+                });
+        snapshot.bookingsByOwner.values().forEach(bookings -> bookings.sort(LATEST_FIRST));
+        snapshot.bookingsByItem.values().forEach(bookings -> bookings.sort(LATEST_FIRST));
+        return snapshot;
+    }
+
+    Optional<User> findUser(Long id) {
+        return Optional.ofNullable(users.get(id));
+    }
+
+    List<Item> findItemsById(Iterable<Long> ids) {
+        List<Item> found = new ArrayList<>();
+        for (Long id : ids) {
+            Item item = itemsById.get(id);
+            if (item != null) {
+                found.add(item);
+            }
+        }
+        return found;
+    }
+
+    List<Item> findItemsByOwner(Long ownerId, Pageable page) {
+        return page(itemsByOwner.getOrDefault(ownerId, Collections.emptyList()), item -> true, page);
+    }
+
+    List<Item> findAvailableItemsAfter(long id, Pageable page) {
+        return page(items, item -> item.getAvailable() && item.getId() > id, page);
+    }
+
+    /**
+     * The contains search of {@code ItemRepository.search}: available items whose name or description contains
+     * the text, name matches first and then by id.
+     */
+    List<Item> searchItems(String pattern, Pageable page) {
+        String text = unescape(pattern.substring(1, pattern.length() - 1)).toLowerCase(Locale.ROOT);
+        List<Item> byName = new ArrayList<>();
+        List<Item> byDescription = new ArrayList<>();
+        for (Item item : items) {
+            if (!item.getAvailable()) {
+                continue;
+            }
+            if (item.getName().toLowerCase(Locale.ROOT).contains(text)) {
+                byName.add(item);
+            } else if (item.getDescription().toLowerCase(Locale.ROOT).contains(text)) {
+                byDescription.add(item);
+            }
+        }
+        byName.addAll(byDescription);
+        return page(byName, item -> true, page);
+    }
+
+    /**
+     * Bookings of the owner's items that sort after the cursor, latest first, among those passing the filter.
+     */
+    List<Booking> findBookingsByOwner(Long ownerId, LocalDateTime start, Long id, Predicate<Booking> filter,
+                                      Pageable page) {
+        return page(bookingsByOwner.getOrDefault(ownerId, Collections.emptyList()),
+                booking -> isAfter(booking, start, id) && filter.test(booking), page);
+    }
+
+    List<BookingShort> findLastBookings(Collection<Long> itemIds, LocalDateTime now, String status) {
+        List<BookingShort> found = new ArrayList<>();
+        for (Long itemId : itemIds) {
+            bookingsByItem.getOrDefault(itemId, Collections.emptyList()).stream()
+                    .filter(booking -> booking.getStart().isBefore(now) && booking.getStatus().name().equals(status))
+                    .findFirst()
+                    .ifPresent(booking -> found.add(new ShortView(booking)));
+        }
+        return found;
+    }
+
+    List<BookingShort> findNextBookings(Collection<Long> itemIds, LocalDateTime now, String status) {
+        List<BookingShort> found = new ArrayList<>();
+        for (Long itemId : itemIds) {
+            bookingsByItem.getOrDefault(itemId, Collections.emptyList()).stream()
+                    .filter(booking -> booking.getStart().isAfter(now) && booking.getStatus().name().equals(status))
+                    .min(EARLIEST_FIRST)
+                    .ifPresent(booking -> found.add(new ShortView(booking)));
+        }
+        return found;
+    }
+
+    private static boolean isAfter(Booking booking, LocalDateTime start, Long id) {
+        return booking.getStart().isBefore(start) || booking.getStart().isEqual(start) && booking.getId() < id;
+    }
+
+    private static <T> List<T> page(List<T> rows, Predicate<T> filter, Pageable page) {
+        return rows.stream()
+                .filter(filter)
+                .skip(page.getOffset())
+                .limit(page.getPageSize())
+                .collect(Collectors.toList());
+    }
+
+    private static String unescape(String text) {
+        StringBuilder unescaped = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\' && i + 1 < text.length()) {
+                c = text.charAt(++i);
+            }
+            unescaped.append(c);
+        }
+        return unescaped.toString();
+    }
+
+    private static final class ShortView implements BookingShort {
+        private final Booking booking;
+
+        private ShortView(Booking booking) {
+            this.booking = booking;
+        }
+
+        @Override
+        public Long getId() {
+            return booking.getId();
+        }
+
+        @Override
+        public Long getItemId() {
+            return booking.getItem().getId();
+        }
+
+        @Override
+        public Long getBookerId() {
+            return booking.getBooker().getId();
+        }
+
+        @Override
+        public LocalDateTime getStart() {
+            return booking.getStart();
+        }
+
+        @Override
+        public LocalDateTime getEnd() {
+            return booking.getEnd();
+        }
+
+        @Override
+        public Status getStatus() {
+            return booking.getStatus();
+        }
+    }
+}
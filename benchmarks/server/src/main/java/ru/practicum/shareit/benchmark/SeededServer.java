@@ -0,0 +1,43 @@
+package ru.practicum.shareit.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+
+import java.util.UUID;
+
+/**
+ * Server application context on its own in-memory H2 database, filled by the seed profile's data generator
+ * with its default sizes. Owners follow a Zipf distribution, so user 1 is the owner with the longest lists.
+ * The bench profile turns off the SQL logging of application.properties.
+ */
+final class SeededServer implements Services {
+    static final long HEAVY_OWNER = 1;
+
+    private final ConfigurableApplicationContext context;
+
+    private SeededServer(ConfigurableApplicationContext context) {
+        this.context = context;
+    }
+
+    static SeededServer start(String searchMode) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test", "seed", "bench")
+                .run("--spring.datasource.url=jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                        "--shareit.search.mode=" + searchMode,
+                        "--logging.level.root=WARN");
+        return new SeededServer(context);
+    }
+
+    @Override
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
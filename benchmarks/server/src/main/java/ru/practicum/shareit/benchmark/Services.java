@@ -0,0 +1,25 @@
+package ru.practicum.shareit.benchmark;
+
+/**
+ * The server services a benchmark calls, over JPA repositories and a seeded database or over stubbed
+ * repositories that answer from the same data held in memory.
+ */
+interface Services extends AutoCloseable {
+    String JPA = "jpa";
+    String MEMORY = "memory";
+
+    static Services start(String repositories, String searchMode) {
+        if (MEMORY.equals(repositories)) {
+            return InMemoryServer.start(searchMode);
+        }
+        if (JPA.equals(repositories)) {
+            return SeededServer.start(searchMode);
+        }
+        throw new IllegalArgumentException("Unknown repositories " + repositories);
+    }
+
+    <T> T getBean(Class<T> type);
+
+    @Override
+    void close();
+}
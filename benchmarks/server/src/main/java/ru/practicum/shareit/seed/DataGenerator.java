@@ -0,0 +1,179 @@
+package ru.practicum.shareit.seed;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.Status;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Fills an empty database with users, requests, items, bookings and comments for performance work.
+ * Item owners and item popularity both follow Zipf distributions: the first users own most of the items,
+ * and the first items get most of the bookings and comments. Each item's bookings follow each other
+ * without overlapping, around the current time, so every booking state has data.
+ * The same random seed and sizes give the same data. Users and items follow the {@link SeedLayout}.
+ */
+@Slf4j
+@Component
+@Profile("seed")
+public class DataGenerator {
+    private static final int BATCH_SIZE = 1000;
+    private static final String[] NAMES = {"Дрель", "Отвертка", "Пила", "Молоток", "Лестница", "Палатка",
+            "Велосипед", "Проектор", "Перфоратор", "Стремянка", "Drill", "Saw", "Ladder", "Tent", "Projector"};
+    private static final String[] TRAITS = {"аккумуляторная", "простая", "складная", "большая", "походная",
+            "профессиональная", "compact", "cordless", "heavy", "new"};
+    private static final String[] COMMENTS = {"Все отлично", "Работает как надо", "Немного потертая",
+            "Спасибо, выручили", "Great", "Not bad"};
+
+    private final int users;
+    private final int requests;
+    private final int items;
+    private final int bookings;
+    private final int comments;
+    private final double ownerExponent;
+    private final double itemExponent;
+    private final long seed;
+
+    public DataGenerator(@Value("${shareit.seed.users:" + SeedLayout.DEFAULT_USERS + "}") int users,
+                         @Value("${shareit.seed.requests:2000}") int requests,
+                         @Value("${shareit.seed.items:" + SeedLayout.DEFAULT_ITEMS + "}") int items,
+                         @Value("${shareit.seed.bookings:50000}") int bookings,
+                         @Value("${shareit.seed.comments:20000}") int comments,
+                         @Value("${shareit.seed.owner-exponent:" + SeedLayout.DEFAULT_OWNER_EXPONENT + "}")
+                         double ownerExponent,
+                         @Value("${shareit.seed.item-exponent:" + SeedLayout.DEFAULT_ITEM_EXPONENT + "}")
+                         double itemExponent,
+                         @Value("${shareit.seed.random-seed:42}") long seed) {
+        this.users = users;
+        this.requests = requests;
+        this.items = items;
+        this.bookings = bookings;
+        this.comments = comments;
+        this.ownerExponent = ownerExponent;
+        this.itemExponent = itemExponent;
+        this.seed = seed;
+    }
+
+    public void generate(JdbcTemplate jdbcTemplate) {
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Integer.class);
+        if (existing != null && existing > 0) {
+            log.info("Database already has {} users, seeding skipped", existing);
+            return;
+        }
+        long started = System.currentTimeMillis();
+        Random random = new Random(seed);
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Object[]> rows = new ArrayList<>(users);
+        for (int i = 1; i <= users; i++) {
+            rows.add(new Object[]{"user" + i, "user" + i + "@shareit.ru"});
+        }
+        insert(jdbcTemplate, "INSERT INTO users (name, email) VALUES (?, ?)", rows);
+        List<Long> userIds = rankedIds(jdbcTemplate, "users");
+
+        rows = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            rows.add(new Object[]{"Нужна " + NAMES[random.nextInt(NAMES.length)].toLowerCase(),
+                    pick(userIds, random), Timestamp.valueOf(now.minusMinutes(random.nextInt(60 * 24 * 90)))});
+        }
+        insert(jdbcTemplate, "INSERT INTO requests (description, requestor_id, created) VALUES (?, ?, ?)", rows);
+        List<Long> requestIds = ids(jdbcTemplate, "requests");
+
+        Zipf owners = new Zipf(userIds.size(), ownerExponent);
+        long[] itemOwners = new long[items];
+        rows = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            itemOwners[i] = userIds.get(owners.sample(random));
+            String name = NAMES[random.nextInt(NAMES.length)];
+            String description = TRAITS[random.nextInt(TRAITS.length)] + " " + name.toLowerCase();
+            Long request = !requestIds.isEmpty() && random.nextInt(10) == 0 ? pick(requestIds, random) : null;
+            rows.add(new Object[]{name, description, random.nextInt(10) > 0, itemOwners[i], request});
+        }
+        insert(jdbcTemplate, "INSERT INTO items (name, description, is_available, owner_id, request_id) "
+                + "VALUES (?, ?, ?, ?, ?)", rows);
+        List<Long> itemIds = rankedIds(jdbcTemplate, "items");
+
+        Zipf popularity = new Zipf(itemIds.size(), itemExponent);
+        int[] bookingsPerItem = new int[itemIds.size()];
+        for (int i = 0; i < bookings; i++) {
+            bookingsPerItem[popularity.sample(random)]++;
+        }
+        rows = new ArrayList<>(bookings);
+        for (int i = 0; i < itemIds.size(); i++) {
+            LocalDateTime start = now.minusHours((long) bookingsPerItem[i] * 36 * 3 / 5 + random.nextInt(48));
+            for (int j = 0; j < bookingsPerItem[i]; j++) {
+                LocalDateTime end = start.plusHours(1 + random.nextInt(48));
+                rows.add(new Object[]{Timestamp.valueOf(start), Timestamp.valueOf(end), itemIds.get(i),
+                        booker(userIds, itemOwners[i], random), status(random).name()});
+                start = end.plusHours(1 + random.nextInt(24));
+            }
+        }
+        insert(jdbcTemplate, "INSERT INTO bookings (start_date, end_date, item_id, booker_id, status) "
+                + "VALUES (?, ?, ?, ?, ?)", rows);
+
+        rows = new ArrayList<>(comments);
+        for (int i = 0; i < comments; i++) {
+            int item = popularity.sample(random);
+            rows.add(new Object[]{COMMENTS[random.nextInt(COMMENTS.length)], itemIds.get(item),
+                    booker(userIds, itemOwners[item], random),
+                    Timestamp.valueOf(now.minusMinutes(random.nextInt(60 * 24 * 90)))});
+        }
+        insert(jdbcTemplate, "INSERT INTO comments (text, item_id, author_id, created) VALUES (?, ?, ?, ?)", rows);
+
+        log.info("Seeded {} users, {} requests, {} items, {} bookings and {} comments in {} ms", users, requests,
+                items, bookings, comments, System.currentTimeMillis() - started);
+    }
+
+    private static void insert(JdbcTemplate jdbcTemplate, String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+        }
+    }
+
+    private static List<Long> ids(JdbcTemplate jdbcTemplate, String table) {
+        return jdbcTemplate.queryForList("SELECT id FROM " + table + " ORDER BY id", Long.class);
+    }
+
+    /**
+     * The ids of a freshly filled table, which must follow the {@link SeedLayout} the load test relies on.
+     */
+    private static List<Long> rankedIds(JdbcTemplate jdbcTemplate, String table) {
+        List<Long> ids = ids(jdbcTemplate, table);
+        int last = ids.size() - 1;
+        if (last >= 0 && (ids.get(0) != SeedLayout.id(0) || ids.get(last) != SeedLayout.id(last))) {
+            throw new IllegalStateException("Seeded " + table + " ids run from " + ids.get(0) + " to "
+                    + ids.get(last) + " instead of from 1, seed a new database");
+        }
+        return ids;
+    }
+
+    private static Long pick(List<Long> ids, Random random) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    private static long booker(List<Long> userIds, long owner, Random random) {
+        long booker = pick(userIds, random);
+        while (booker == owner && userIds.size() > 1) {
+            booker = pick(userIds, random);
+        }
+        return booker;
+    }
+
+    private static Status status(Random random) {
+        int roll = random.nextInt(20);
+        if (roll < 12) {
+            return Status.APPROVED;
+        }
+        if (roll < 16) {
+            return Status.WAITING;
+        }
+        return roll < 19 ? Status.REJECTED : Status.CANCELED;
+    }
+}
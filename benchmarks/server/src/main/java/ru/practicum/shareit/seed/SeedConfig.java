@@ -0,0 +1,23 @@
+package ru.practicum.shareit.seed;
+
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * With the seed profile an empty database is filled right after the migrations, before anything reads it,
+ * so caches and the search index start from the generated data.
+ */
+@Configuration
+@Profile("seed")
+public class SeedConfig {
+    @Bean
+    public FlywayMigrationStrategy seedAfterMigration(DataGenerator dataGenerator) {
+        return flyway -> {
+            flyway.migrate();
+            dataGenerator.generate(new JdbcTemplate(flyway.getConfiguration().getDataSource()));
+        };
+    }
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Service
+@Profile("reactive")
+public class ReactiveBookingClient extends ReactiveBaseClient {
+    private static final String API_PREFIX = "/bookings";
+
+    public ReactiveBookingClient(@Value("${shareit-server.url}") String serverUrl, WebClient shareitWebClient) {
+        super(shareitWebClient.mutate().baseUrl(serverUrl + API_PREFIX).build());
+    }
+
+    public Mono<ResponseEntity<byte[]>> getBookings(long userId, BookingState state, Integer from, Integer size,
+                                                    String cursor) {
+        return get("?" + timelineQuery(cursor), userId, timelineParameters(state, from, size, cursor));
+    }
+
+    public Mono<ResponseEntity<byte[]>> bookItem(long userId, BookItemRequestDto requestDto) {
+        return post("", userId, requestDto);
+    }
+
+    public Mono<ResponseEntity<byte[]>> getBooking(long userId, Long bookingId) {
+        return get("/" + bookingId, userId);
+    }
+
+    public Mono<ResponseEntity<byte[]>> updateStatus(Long bookingId, long userId, boolean approved) {
+        return patch("/" + bookingId + "?approved=" + approved, userId);
+    }
+
+    public Mono<ResponseEntity<byte[]>> findAllBookingsByOwner(long ownerId, BookingState state, Integer from,
+                                                               Integer size, String cursor) {
+        return get("/owner?" + timelineQuery(cursor), ownerId, timelineParameters(state, from, size, cursor));
+    }
+
+    private static String timelineQuery(String cursor) {
+        String query = "state={state}&from={from}&size={size}";
+        return cursor == null ? query : query + "&cursor={cursor}";
+    }
+
+    private static Map<String, Object> timelineParameters(BookingState state, Integer from, Integer size,
+                                                          String cursor) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state.name());
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+        }
+        return parameters;
+    }
+}
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.exception.StatusException;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+
+@Controller
+@Profile("reactive")
+@RequestMapping(path = "/bookings")
+@RequiredArgsConstructor
+@Slf4j
+@Validated
+public class ReactiveBookingController {
+    private final ReactiveBookingClient bookingClient;
+
+    @GetMapping
+    public Mono<ResponseEntity<byte[]>> getBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                    @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                                    @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                    @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                    @RequestParam(name = "cursor", required = false) String cursor) {
+        BookingState state = BookingState.from(stateParam)
+                .orElseThrow(() -> new StatusException(stateParam));
+        log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
+        return bookingClient.getBookings(userId, state, from, size, cursor);
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<byte[]>> bookItem(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                 @RequestBody @Valid BookItemRequestDto requestDto) {
+        log.info("Creating booking {}, userId={}", requestDto, userId);
+        return bookingClient.bookItem(userId, requestDto);
+    }
+
+    @GetMapping("/{bookingId}")
+    public Mono<ResponseEntity<byte[]>> getBooking(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                   @PathVariable Long bookingId) {
+        log.info("Get booking {}, userId={}", bookingId, userId);
+        return bookingClient.getBooking(userId, bookingId);
+    }
+
+    @PatchMapping("/{bookingId}")
+    public Mono<ResponseEntity<byte[]>> updateStatus(@RequestParam("approved") boolean approved,
+                                                     @PathVariable("bookingId") Long bookingId,
+                                                     @RequestHeader("X-Sharer-User-Id") long userId) {
+        log.info("Update booking status id {}", bookingId);
+        return bookingClient.updateStatus(bookingId, userId, approved);
+    }
+
+    @GetMapping("/owner")
+    public Mono<ResponseEntity<byte[]>> findAllBookingsByOwner(@RequestHeader("X-Sharer-User-Id") long ownerId,
+                                                               @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                                               @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                               @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                               @RequestParam(name = "cursor", required = false) String cursor) {
+        BookingState state = BookingState.from(stateParam)
+                .orElseThrow(() -> new StatusException(stateParam));
+        log.info("Get all booking by owner {} with state {}, from={}, size={}", ownerId, stateParam, from, size);
+        return bookingClient.findAllBookingsByOwner(ownerId, state, from, size, cursor);
+    }
+}
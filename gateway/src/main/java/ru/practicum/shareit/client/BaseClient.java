@@ -1,96 +1,124 @@
 package ru.practicum.shareit.client;
 
+import java.io.OutputStream;
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
 
+import javax.servlet.http.HttpServletRequest;
+
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 public class BaseClient {
     protected final RestTemplate rest;
+    private final SingleFlight singleFlight;
+    private final CircuitBreaker circuitBreaker;
 
-    public BaseClient(RestTemplate rest) {
+    public BaseClient(RestTemplate rest, SingleFlight singleFlight, CircuitBreaker circuitBreaker) {
         this.rest = rest;
+        this.singleFlight = singleFlight;
+        this.circuitBreaker = circuitBreaker;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected ResponseEntity<byte[]> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected ResponseEntity<byte[]> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected ResponseEntity<byte[]> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected <T> ResponseEntity<byte[]> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> ResponseEntity<byte[]> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> ResponseEntity<byte[]> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> ResponseEntity<byte[]> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> ResponseEntity<byte[]> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> ResponseEntity<byte[]> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> ResponseEntity<byte[]> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> ResponseEntity<byte[]> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> ResponseEntity<byte[]> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected ResponseEntity<byte[]> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected ResponseEntity<byte[]> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected ResponseEntity<byte[]> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    protected void stream(String path, MediaType mediaType, OutputStream out) {
+        circuitBreaker.execute(false, () -> rest.execute(path, HttpMethod.GET,
+                request -> request.getHeaders().setAccept(List.of(mediaType)),
+                response -> {
+                    StreamUtils.copy(response.getBody(), out);
+                    return null;
+                }));
+    }
+
+    private <T> ResponseEntity<byte[]> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        HttpHeaders headers = defaultHeaders(userId);
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, headers);
+        URI uri = rest.getUriTemplateHandler().expand(path, parameters != null ? parameters : Map.of());
+
+        if (method == HttpMethod.GET) {
+            return singleFlight.execute(List.of(uri, headers),
+                    () -> circuitBreaker.execute(true, () -> exchange(uri, method, requestEntity)));
+        }
+        return circuitBreaker.execute(false, () -> exchange(uri, method, requestEntity));
+    }
 
-        ResponseEntity<Object> shareitServerResponse;
+    private <T> ResponseEntity<byte[]> exchange(URI uri, HttpMethod method, HttpEntity<T> requestEntity) {
+        ResponseEntity<byte[]> shareitServerResponse;
         try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
+            shareitServerResponse = rest.exchange(uri, method, requestEntity, byte[].class);
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            shareitServerResponse = new ResponseEntity<>(e.getResponseBodyAsByteArray(), e.getResponseHeaders(),
+                    e.getStatusCode());
         }
         return prepareGatewayResponse(shareitServerResponse);
     }
@@ -102,20 +130,32 @@ public class BaseClient {
         if (userId != null) {
             headers.set("X-Sharer-User-Id", String.valueOf(userId));
         }
+        addValidators(headers);
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
+    /**
+     * Copies the conditional request headers of the client request being served, so the server can answer 304.
+     */
+    private static void addValidators(HttpHeaders headers) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return;
         }
-
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
-
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+        HttpServletRequest request = ((ServletRequestAttributes) attributes).getRequest();
+        for (String name : GatewayResponses.VALIDATORS) {
+            String value = request.getHeader(name);
+            if (value != null) {
+                headers.set(name, value);
+            }
         }
+    }
 
-        return responseBuilder.build();
+    /**
+     * Relays the server response as is, see {@link GatewayResponses#headers}.
+     */
+    private static ResponseEntity<byte[]> prepareGatewayResponse(ResponseEntity<byte[]> response) {
+        return new ResponseEntity<>(response.getBody(),
+                GatewayResponses.headers(response.getStatusCode(), response.getHeaders()), response.getStatusCode());
     }
-}
\ No newline at end of file
+}
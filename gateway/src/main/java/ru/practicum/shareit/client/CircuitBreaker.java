@@ -0,0 +1,133 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.springframework.web.client.ResourceAccessException;
+import ru.practicum.shareit.exception.ServerUnavailableException;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Guards the calls to one server API. After {@link HttpClientProperties.Breaker#getFailureThreshold()} I/O
+ * failures in a row the breaker opens and calls fail at once with 503; when the open time is over a single
+ * call probes the server, and its outcome closes the breaker or opens it again.
+ * Calls that may be repeated are retried with jittered backoff when the connection fails, but not after
+ * a timeout, since a server that is slow to answer only gets busier.
+ * A call that timed out waiting for a connection of the gateway's own pool never reached the server: it is shed
+ * with 503 without counting as a failure, so a burst of gateway traffic cannot open the breaker.
+ * Published as shareit.server.breaker.open, shareit.server.retries, shareit.server.rejected and shareit.server.shed
+ * tagged with the api.
+ */
+@Slf4j
+public class CircuitBreaker {
+    private final String api;
+    private final HttpClientProperties.Breaker breaker;
+    private final HttpClientProperties.Retry retry;
+    private final AtomicInteger failures = new AtomicInteger();
+    private final AtomicLong openUntil = new AtomicLong();
+    private final AtomicBoolean open = new AtomicBoolean();
+    private final AtomicBoolean probing = new AtomicBoolean();
+    private final Counter retries;
+    private final Counter rejected;
+    private final Counter shed;
+
+    CircuitBreaker(String api, HttpClientProperties properties, MeterRegistry meterRegistry) {
+        this.api = api;
+        this.breaker = properties.getBreaker();
+        this.retry = properties.getRetry();
+        this.retries = meterRegistry.counter("shareit.server.retries", "api", api);
+        this.rejected = meterRegistry.counter("shareit.server.rejected", "api", api);
+        this.shed = meterRegistry.counter("shareit.server.shed", "api", api);
+        Gauge.builder("shareit.server.breaker.open", open, value -> value.get() ? 1 : 0)
+                .tag("api", api)
+                .register(meterRegistry);
+    }
+
+    public <T> T execute(boolean retryable, Supplier<T> call) {
+        int attempts = retryable ? retry.getMaxAttempts() : 1;
+        for (int attempt = 1; ; attempt++) {
+            boolean probe = acquire();
+            try {
+                T result = call.get();
+                onSuccess();
+                return result;
+            } catch (ResourceAccessException e) {
+                if (isPoolTimeout(e)) {
+                    shed.increment();
+                    throw new ServerUnavailableException("ShareIt gateway is overloaded", 1);
+                }
+                onFailure(probe);
+                if (attempt >= attempts || e.getCause() instanceof InterruptedIOException) {
+                    throw e;
+                }
+                retries.increment();
+                log.info("Retrying call to {} after {}", api, e.getMessage());
+                backoff(attempt);
+            } finally {
+                if (probe) {
+                    probing.set(false);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns whether the call is the probe of an open breaker.
+     */
+    private boolean acquire() {
+        if (!open.get()) {
+            return false;
+        }
+        long wait = openUntil.get() - System.nanoTime();
+        if (wait <= 0 && probing.compareAndSet(false, true)) {
+            return true;
+        }
+        rejected.increment();
+        throw new ServerUnavailableException("ShareIt server is not available",
+                Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait) + 1));
+    }
+
+    private void onSuccess() {
+        failures.set(0);
+        if (open.compareAndSet(true, false)) {
+            log.info("Circuit breaker of {} closed", api);
+        }
+    }
+
+    private void onFailure(boolean probe) {
+        if (probe || failures.incrementAndGet() >= breaker.getFailureThreshold()) {
+            openUntil.set(System.nanoTime() + breaker.getOpenDuration().toNanos());
+            if (open.compareAndSet(false, true)) {
+                log.info("Circuit breaker of {} opened for {}", api, breaker.getOpenDuration());
+            }
+        }
+    }
+
+    private static boolean isPoolTimeout(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectionPoolTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void backoff(int attempt) {
+        long ceiling = Math.min(retry.getMaxBackoff().toMillis(), retry.getBackoff().toMillis() << (attempt - 1));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServerUnavailableException("ShareIt server call interrupted", 1);
+        }
+    }
+}
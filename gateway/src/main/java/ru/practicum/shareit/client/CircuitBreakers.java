@@ -0,0 +1,28 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link CircuitBreaker} per server API prefix, so an outage of one API does not fail calls to the others.
+ */
+@Component
+@Profile("!reactive")
+public class CircuitBreakers {
+    private final HttpClientProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    public CircuitBreakers(HttpClientProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public CircuitBreaker forApi(String prefix) {
+        return breakers.computeIfAbsent(prefix, api -> new CircuitBreaker(api, properties, meterRegistry));
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.client;
+
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Header rules shared by {@link BaseClient} and {@link ReactiveBaseClient}.
+ */
+final class GatewayResponses {
+    /**
+     * Conditional request headers copied from the client request, so the server can answer 304.
+     */
+    static final List<String> VALIDATORS = List.of(HttpHeaders.IF_NONE_MATCH, HttpHeaders.IF_MATCH,
+            HttpHeaders.IF_MODIFIED_SINCE, HttpHeaders.IF_UNMODIFIED_SINCE);
+
+    private static final List<String> NOT_MODIFIED_HEADERS = List.of(HttpHeaders.ETAG, HttpHeaders.CACHE_CONTROL,
+            HttpHeaders.EXPIRES, HttpHeaders.VARY);
+    private static final Set<String> HOP_BY_HOP_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+    static {
+        HOP_BY_HOP_HEADERS.addAll(List.of(HttpHeaders.CONNECTION, "Keep-Alive", HttpHeaders.PROXY_AUTHENTICATE,
+                HttpHeaders.PROXY_AUTHORIZATION, HttpHeaders.TE, HttpHeaders.TRAILER, HttpHeaders.TRANSFER_ENCODING,
+                HttpHeaders.UPGRADE, HttpHeaders.CONTENT_LENGTH));
+    }
+
+    private GatewayResponses() {
+    }
+
+    /**
+     * Headers to relay with a server response: the body is never parsed, and only headers that describe
+     * the server connection rather than the payload are dropped.
+     */
+    static HttpHeaders headers(HttpStatus status, HttpHeaders serverHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        if (status.is2xxSuccessful()) {
+            serverHeaders.forEach((name, values) -> {
+                if (!HOP_BY_HOP_HEADERS.contains(name)) {
+                    headers.put(name, values);
+                }
+            });
+        } else if (status == HttpStatus.NOT_MODIFIED) {
+            for (String name : NOT_MODIFIED_HEADERS) {
+                List<String> values = serverHeaders.get(name);
+                if (values != null) {
+                    headers.put(name, values);
+                }
+            }
+        } else if (serverHeaders.getContentType() != null) {
+            headers.setContentType(serverHeaders.getContentType());
+        }
+        return headers;
+    }
+}
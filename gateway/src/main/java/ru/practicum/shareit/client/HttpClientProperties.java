@@ -0,0 +1,76 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Connection pool and timeouts of the client shared by all calls to the ShareIt server.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.http")
+public class HttpClientProperties {
+    /**
+     * Connections open to the server at once. All calls go to one route, so it is also the per-route limit
+     * unless {@link #maxPerRoute} is lower.
+     */
+    private int maxTotal = 200;
+
+    private int maxPerRoute = 200;
+
+    private Duration connectTimeout = Duration.ofSeconds(1);
+
+    private Duration readTimeout = Duration.ofSeconds(5);
+
+    /**
+     * How long a request waits for a free pooled connection before it fails.
+     */
+    private Duration poolTimeout = Duration.ofMillis(500);
+
+    /**
+     * Keep-alive of a connection when the server response does not set one.
+     */
+    private Duration keepAlive = Duration.ofSeconds(30);
+
+    /**
+     * Idle connections are closed after this time, and checked before reuse after half of it.
+     */
+    private Duration idleTimeout = Duration.ofSeconds(10);
+
+    private Breaker breaker = new Breaker();
+
+    private Retry retry = new Retry();
+
+    @Getter
+    @Setter
+    public static class Breaker {
+        /**
+         * Failed calls in a row that open the breaker of an API.
+         */
+        private int failureThreshold = 5;
+
+        /**
+         * How long calls fail fast before one of them probes the server.
+         */
+        private Duration openDuration = Duration.ofSeconds(5);
+    }
+
+    @Getter
+    @Setter
+    public static class Retry {
+        /**
+         * Attempts of a GET whose connection failed, the first one included.
+         */
+        private int maxAttempts = 3;
+
+        /**
+         * Upper bound of the random pause before the first retry, doubled for each next one.
+         */
+        private Duration backoff = Duration.ofMillis(50);
+
+        private Duration maxBackoff = Duration.ofMillis(500);
+    }
+}
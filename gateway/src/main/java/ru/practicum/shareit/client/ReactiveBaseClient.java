@@ -0,0 +1,136 @@
+package ru.practicum.shareit.client;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.filter.reactive.ServerWebExchangeContextFilter;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of {@link BaseClient}: the server response is relayed as raw bytes
+ * without holding a thread while the server works.
+ */
+public class ReactiveBaseClient {
+    protected final WebClient webClient;
+
+    public ReactiveBaseClient(WebClient webClient) {
+        this.webClient = webClient;
+    }
+
+    protected Mono<ResponseEntity<byte[]>> get(String path) {
+        return get(path, null, null);
+    }
+
+    protected Mono<ResponseEntity<byte[]>> get(String path, long userId) {
+        return get(path, userId, null);
+    }
+
+    protected Mono<ResponseEntity<byte[]>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+    }
+
+    protected <T> Mono<ResponseEntity<byte[]>> post(String path, T body) {
+        return post(path, null, null, body);
+    }
+
+    protected <T> Mono<ResponseEntity<byte[]>> post(String path, long userId, T body) {
+        return post(path, userId, null, body);
+    }
+
+    protected <T> Mono<ResponseEntity<byte[]>> post(String path, Long userId, @Nullable Map<String, Object> parameters,
+                                                    T body) {
+        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
+    }
+
+    protected <T> Mono<ResponseEntity<byte[]>> patch(String path, T body) {
+        return patch(path, null, null, body);
+    }
+
+    protected Mono<ResponseEntity<byte[]>> patch(String path, long userId) {
+        return patch(path, userId, null, null);
+    }
+
+    protected <T> Mono<ResponseEntity<byte[]>> patch(String path, long userId, T body) {
+        return patch(path, userId, null, body);
+    }
+
+    protected <T> Mono<ResponseEntity<byte[]>> patch(String path, Long userId, @Nullable Map<String, Object> parameters,
+                                                     T body) {
+        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
+    }
+
+    protected Mono<ResponseEntity<byte[]>> delete(String path, long userId) {
+        return makeAndSendRequest(HttpMethod.DELETE, path, userId, null, null);
+    }
+
+    /**
+     * Relays a streamed server response. An error status is passed on with the server's error body
+     * instead of failing the stream after the gateway has already answered 200. A response without
+     * a content type is labelled with the requested one.
+     */
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> stream(String path, MediaType mediaType) {
+        return webClient.get()
+                .uri(path)
+                .accept(mediaType)
+                .retrieve()
+                .onStatus(status -> true, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .map(response -> {
+                    HttpHeaders headers = GatewayResponses.headers(response.getStatusCode(), response.getHeaders());
+                    if (headers.getContentType() == null) {
+                        headers.setContentType(mediaType);
+                    }
+                    return new ResponseEntity<>(response.getBody(), headers, response.getStatusCode());
+                });
+    }
+
+    private <T> Mono<ResponseEntity<byte[]>> makeAndSendRequest(HttpMethod method, String path, Long userId,
+                                                                @Nullable Map<String, Object> parameters,
+                                                                @Nullable T body) {
+        return Mono.deferContextual(context -> {
+            HttpHeaders validators = context.<ServerWebExchange>getOrEmpty(
+                            ServerWebExchangeContextFilter.EXCHANGE_CONTEXT_ATTRIBUTE)
+                    .map(ReactiveBaseClient::validators)
+                    .orElseGet(HttpHeaders::new);
+            WebClient.RequestBodySpec request = webClient.method(method)
+                    .uri(path, parameters != null ? parameters : Map.of())
+                    .headers(headers -> {
+                        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+                        if (userId != null) {
+                            headers.set("X-Sharer-User-Id", String.valueOf(userId));
+                        }
+                        headers.addAll(validators);
+                    });
+            WebClient.RequestHeadersSpec<?> spec = body != null
+                    ? request.contentType(MediaType.APPLICATION_JSON).bodyValue(body)
+                    : request;
+            return spec.exchangeToMono(response -> response.toEntity(byte[].class));
+        }).map(ReactiveBaseClient::prepareGatewayResponse);
+    }
+
+    private static HttpHeaders validators(ServerWebExchange exchange) {
+        HttpHeaders headers = new HttpHeaders();
+        HttpHeaders requestHeaders = exchange.getRequest().getHeaders();
+        for (String name : GatewayResponses.VALIDATORS) {
+            List<String> values = requestHeaders.get(name);
+            if (values != null) {
+                headers.put(name, values);
+            }
+        }
+        return headers;
+    }
+
+    private static ResponseEntity<byte[]> prepareGatewayResponse(ResponseEntity<byte[]> response) {
+        return new ResponseEntity<>(response.getBody(),
+                GatewayResponses.headers(response.getStatusCode(), response.getHeaders()), response.getStatusCode());
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.client;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.filter.reactive.ServerWebExchangeContextFilter;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Reactive gateway runtime: Netty serves the clients, and a non-blocking client configured from the same
+ * shareit-server.http.* properties as the servlet gateway calls the server.
+ * Pool usage is published as the reactor.netty.connection.provider.* metrics of the shareit-server pool.
+ */
+@Configuration
+@Profile("reactive")
+@EnableConfigurationProperties(HttpClientProperties.class)
+public class ReactiveGatewayConfig {
+    /**
+     * Tomcat is on the classpath for the servlet gateway and would otherwise be picked as the reactive server too.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory reactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider shareitConnectionProvider(HttpClientProperties properties) {
+        return ConnectionProvider.builder("shareit-server")
+                .maxConnections(properties.getMaxPerRoute())
+                .pendingAcquireTimeout(properties.getPoolTimeout())
+                .pendingAcquireMaxCount(-1)
+                .maxIdleTime(properties.getIdleTimeout())
+                .evictInBackground(properties.getIdleTimeout())
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public WebClient shareitWebClient(WebClient.Builder builder, ConnectionProvider shareitConnectionProvider,
+                                      HttpClientProperties properties) {
+        HttpClient httpClient = HttpClient.create(shareitConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getReadTimeout());
+        return builder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
+    /**
+     * Makes the served exchange available to {@link ReactiveBaseClient} through the Reactor context.
+     */
+    @Bean
+    public ServerWebExchangeContextFilter serverWebExchangeContextFilter() {
+        return new ServerWebExchangeContextFilter();
+    }
+}
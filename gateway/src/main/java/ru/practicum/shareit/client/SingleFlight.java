@@ -0,0 +1,66 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Lets identical concurrent server calls share one call. The first caller of a key makes the call,
+ * callers arriving while it is in flight wait for its result. The key is dropped before the result
+ * is published, so a caller arriving later always makes a fresh call.
+ * Calls are counted as shareit.server.calls with result=leader or result=coalesced.
+ */
+@Component
+@Profile("!reactive")
+public class SingleFlight {
+    private final Map<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final Counter leaders;
+    private final Counter coalesced;
+
+    public SingleFlight(@Value("${shareit-server.single-flight.enabled:true}") boolean enabled,
+                        MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.leaders = meterRegistry.counter("shareit.server.calls", "result", "leader");
+        this.coalesced = meterRegistry.counter("shareit.server.calls", "result", "coalesced");
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(Object key, Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, flight);
+        if (running != null) {
+            coalesced.increment();
+            try {
+                return (T) running.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+        leaders.increment();
+        try {
+            T result = call.get();
+            inFlight.remove(key, flight);
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, flight);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+    }
+}
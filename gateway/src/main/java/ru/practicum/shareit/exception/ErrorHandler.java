@@ -1,13 +1,17 @@
 package ru.practicum.shareit.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
+import javax.validation.ConstraintViolationException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.LinkedHashMap;
@@ -15,8 +19,9 @@ import java.util.Map;
 
 @Slf4j
 @RestControllerAdvice
+@Profile("!reactive")
 public class ErrorHandler extends ResponseEntityExceptionHandler {
-    @ExceptionHandler(value = {InvalidRequestException.class})
+    @ExceptionHandler(value = {InvalidRequestException.class, ConstraintViolationException.class})
     public ResponseEntity<Object> handleInvalidRequestException(final RuntimeException ex) {
         Map<String, Object> response = new LinkedHashMap<>();
 
@@ -34,4 +39,28 @@ public class ErrorHandler extends ResponseEntityExceptionHandler {
     public ErrorResponse handleValidationException(final StatusException e) {
         return new ErrorResponse(String.format("Unknown state: " + e.getMessage()));
     }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponse handleResourceAccessException(final ResourceAccessException e) {
+        log.info("ShareIt server is not available: {}", e.getMessage());
+        return new ErrorResponse("ShareIt server is not available");
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<ErrorResponse> handleServerUnavailableException(final ServerUnavailableException e) {
+        log.info("ShareIt server call rejected: {}", e.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(new ErrorResponse(e.getMessage()));
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<ErrorResponse> handleTooManyRequestsException(final TooManyRequestsException e) {
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(new ErrorResponse(e.getMessage()));
+    }
 }
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.exception;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+
+import javax.validation.ConstraintViolationException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Same error responses as {@link ErrorHandler}, for the reactive gateway.
+ */
+@Slf4j
+@Profile("reactive")
+@RestControllerAdvice
+public class ReactiveErrorHandler {
+    @ExceptionHandler(value = {InvalidRequestException.class, ConstraintViolationException.class})
+    public ResponseEntity<Object> handleInvalidRequestException(final RuntimeException ex) {
+        Map<String, Object> response = new LinkedHashMap<>();
+
+        response.put("timestamp", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
+        response.put("status", HttpStatus.BAD_REQUEST.name());
+        response.put("error", ex.getMessage());
+
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(response);
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleValidationException(final StatusException e) {
+        return new ErrorResponse(String.format("Unknown state: " + e.getMessage()));
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponse handleWebClientRequestException(final WebClientRequestException e) {
+        log.info("ShareIt server is not available: {}", e.getMessage());
+        return new ErrorResponse("ShareIt server is not available");
+    }
+}
@@ -3,43 +3,60 @@ package ru.practicum.shareit.item;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.CircuitBreakers;
+import ru.practicum.shareit.client.SingleFlight;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.Map;
 
 @Service
+@Profile("!reactive")
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory requestFactory, SingleFlight singleFlight,
+                      CircuitBreakers circuitBreakers) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                singleFlight,
+                circuitBreakers.forApi(API_PREFIX)
         );
     }
 
-    public ResponseEntity<Object> addItem(ItemDto itemDto, Long ownerId) {
+    public ResponseEntity<byte[]> addItem(ItemDto itemDto, Long ownerId) {
         return post("", ownerId, itemDto);
     }
 
-    public ResponseEntity<Object> updateItem(ItemDto itemDto, Long itemId, long ownerId) {
+    public ResponseEntity<byte[]> updateItem(ItemDto itemDto, Long itemId, long ownerId) {
         return patch("/" + itemId, ownerId, itemDto);
     }
 
-    public ResponseEntity<Object> getItemById(long itemId, Long userId) {
+    public ResponseEntity<byte[]> getItemById(long itemId, Long userId) {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> getAllItemByUser(long ownerId, Integer from, Integer size) {
+    public ResponseEntity<byte[]> getAvailability(long itemId, long userId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", userId, parameters);
+    }
+
+    public ResponseEntity<byte[]> getAllItemByUser(long ownerId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -47,7 +64,7 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", ownerId, parameters);
     }
 
-    public ResponseEntity<Object> findItemsByText(long userId, String text, Integer from, Integer size) {
+    public ResponseEntity<byte[]> findItemsByText(long userId, String text, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
@@ -56,7 +73,19 @@ public class ItemClient extends BaseClient {
         return get("/search?text={text}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> createComment(CommentDto commentDto, Long userId, Long itemId) {
+    public ResponseEntity<byte[]> findFreeItemsByText(long userId, String text, LocalDateTime start, LocalDateTime end,
+                                                      Integer from, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "start", start,
+                "end", end,
+                "from", from,
+                "size", size
+        );
+        return get("/search?text={text}&start={start}&end={end}&from={from}&size={size}", userId, parameters);
+    }
+
+    public ResponseEntity<byte[]> createComment(CommentDto commentDto, Long userId, Long itemId) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
 }
@@ -0,0 +1,78 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Service
+@Profile("reactive")
+public class ReactiveItemClient extends ReactiveBaseClient {
+    private static final String API_PREFIX = "/items";
+
+    public ReactiveItemClient(@Value("${shareit-server.url}") String serverUrl, WebClient shareitWebClient) {
+        super(shareitWebClient.mutate().baseUrl(serverUrl + API_PREFIX).build());
+    }
+
+    public Mono<ResponseEntity<byte[]>> addItem(ItemDto itemDto, Long ownerId) {
+        return post("", ownerId, itemDto);
+    }
+
+    public Mono<ResponseEntity<byte[]>> updateItem(ItemDto itemDto, Long itemId, long ownerId) {
+        return patch("/" + itemId, ownerId, itemDto);
+    }
+
+    public Mono<ResponseEntity<byte[]>> getItemById(long itemId, Long userId) {
+        return get("/" + itemId, userId);
+    }
+
+    public Mono<ResponseEntity<byte[]>> getAvailability(long itemId, long userId, LocalDateTime from,
+                                                        LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<byte[]>> getAllItemByUser(long ownerId, Integer from, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "size", size
+        );
+        return get("?from={from}&size={size}", ownerId, parameters);
+    }
+
+    public Mono<ResponseEntity<byte[]>> findItemsByText(long userId, String text, Integer from, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "from", from,
+                "size", size
+        );
+        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<byte[]>> findFreeItemsByText(long userId, String text, LocalDateTime start,
+                                                            LocalDateTime end, Integer from, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "start", start,
+                "end", end,
+                "from", from,
+                "size", size
+        );
+        return get("/search?text={text}&start={start}&end={end}&from={from}&size={size}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<byte[]>> createComment(CommentDto commentDto, Long userId, Long itemId) {
+        return post("/" + itemId + "/comment", userId, commentDto);
+    }
+}
@@ -0,0 +1,96 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.exception.InvalidRequestException;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
+
+@Controller
+@Profile("reactive")
+@RequestMapping(path = "/items")
+@RequiredArgsConstructor
+@Slf4j
+@Validated
+public class ReactiveItemController {
+    private final ReactiveItemClient itemClient;
+
+    @PostMapping
+    public Mono<ResponseEntity<byte[]>> createItem(@Valid @RequestBody ItemDto itemDto,
+                                                   @RequestHeader("X-Sharer-User-Id") long ownerId) {
+        log.info("Post new item by ownerId {}", ownerId);
+        return itemClient.addItem(itemDto, ownerId);
+    }
+
+    @PatchMapping("/{itemId}")
+    public Mono<ResponseEntity<byte[]>> updateItem(@RequestBody ItemDto itemDto, @PathVariable("itemId") long itemId,
+                                                   @RequestHeader("X-Sharer-User-Id") long ownerId) {
+        log.info("Update item id {}", itemId);
+        return itemClient.updateItem(itemDto, itemId, ownerId);
+    }
+
+    @GetMapping("/{itemId}")
+    public Mono<ResponseEntity<byte[]>> getItemById(@PathVariable("itemId") long itemId,
+                                                    @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Get item by id {}", itemId);
+        return itemClient.getItemById(itemId, userId);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public Mono<ResponseEntity<byte[]>> getAvailability(@PathVariable("itemId") long itemId,
+                                                        @RequestHeader("X-Sharer-User-Id") long userId,
+                                                        @RequestParam(name = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                        @RequestParam(name = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new InvalidRequestException("from must be before to");
+        }
+        log.info("Get availability of item {} from {} to {}", itemId, from, to);
+        return itemClient.getAvailability(itemId, userId, from, to);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<byte[]>> getAllItemByUser(@RequestHeader("X-Sharer-User-Id") long ownerId,
+                                                         @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                         @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+        log.info("Get all item by owner {}, from={}, size={}", ownerId, from, size);
+        return itemClient.getAllItemByUser(ownerId, from, size);
+    }
+
+    @GetMapping("/search")
+    public Mono<ResponseEntity<byte[]>> findItemsByText(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                        @RequestParam("text") String text,
+                                                        @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                        @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                        @RequestParam(name = "start", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                                        @RequestParam(name = "end", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        log.info("Get all item by text {}", text);
+        if (start == null && end == null) {
+            return itemClient.findItemsByText(userId, text, from, size);
+        }
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new InvalidRequestException("start and end must both be set, start before end");
+        }
+        log.info("Search window from {} to {}", start, end);
+        return itemClient.findFreeItemsByText(userId, text, start, end, from, size);
+    }
+
+    @PostMapping("/{itemId}/comment")
+    public Mono<ResponseEntity<byte[]>> createComment(@RequestBody CommentDto commentDto,
+                                                      @PathVariable("itemId") Long itemId,
+                                                      @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Add new comment");
+        return itemClient.createComment(commentDto, userId, itemId);
+    }
+}
@@ -0,0 +1,110 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.practicum.shareit.exception.TooManyRequestsException;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rejects a request with 429 when its user has used up the budget of the endpoint, or when the gateway
+ * already handles {@link RateLimitProperties#getMaxConcurrent()} requests. A request keeps its slot until
+ * it completes, including the async part of a streamed response.
+ * Decisions are counted as shareit.rate-limit.requests tagged with the endpoint and decision=allowed,
+ * limited or shed; shareit.rate-limit.in-flight shows the slots in use.
+ * Buckets are dropped once idle for as long as the slowest budget takes to refill, when they would be full
+ * again anyway, and the number of buckets is capped, since the user id comes from a client header.
+ */
+@Slf4j
+public class RateLimitInterceptor implements AsyncHandlerInterceptor {
+    private static final String PERMIT = RateLimitInterceptor.class.getName() + ".PERMIT";
+    private static final int MAX_BUCKETS = 100_000;
+
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Semaphore slots;
+    private final Cache<String, TokenBucket> buckets;
+
+    public RateLimitInterceptor(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.slots = new Semaphore(properties.getMaxConcurrent());
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(MAX_BUCKETS)
+                .expireAfterAccess(refillTime(properties))
+                .build();
+        Gauge.builder("shareit.rate-limit.in-flight", slots,
+                        semaphore -> properties.getMaxConcurrent() - semaphore.availablePermits())
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getAttribute(PERMIT) != null) {
+            return true;
+        }
+        String endpoint = endpoint(request);
+        String user = request.getHeader("X-Sharer-User-Id");
+        if (user == null) {
+            user = request.getRemoteAddr();
+        }
+        long now = System.nanoTime();
+        long wait = bucket(user + " " + endpoint, endpoint, now).tryAcquire(now);
+        if (wait > 0) {
+            count(endpoint, "limited");
+            log.info("Rate limit of {} reached by user {}", endpoint, user);
+            throw new TooManyRequestsException("Too many requests", seconds(wait));
+        }
+        if (!slots.tryAcquire()) {
+            count(endpoint, "shed");
+            log.info("Shedding {} request, {} requests in flight", endpoint, properties.getMaxConcurrent());
+            throw new TooManyRequestsException("Gateway is overloaded", seconds(properties.getShedRetryAfter().toNanos()));
+        }
+        count(endpoint, "allowed");
+        request.setAttribute(PERMIT, Boolean.TRUE);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(PERMIT) != null && !request.isAsyncStarted()) {
+            request.removeAttribute(PERMIT);
+            slots.release();
+        }
+    }
+
+    private TokenBucket bucket(String key, String endpoint, long now) {
+        return buckets.get(key, k -> new TokenBucket(
+                properties.getEndpoints().getOrDefault(endpoint, properties.getDefaults()), now));
+    }
+
+    private void count(String endpoint, String decision) {
+        meterRegistry.counter("shareit.rate-limit.requests", "endpoint", endpoint, "decision", decision).increment();
+    }
+
+    private static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : request.getRequestURI();
+    }
+
+    private static Duration refillTime(RateLimitProperties properties) {
+        double seconds = properties.getEndpoints().values().stream()
+                .mapToDouble(budget -> budget.getCapacity() / budget.getPerSecond())
+                .reduce(properties.getDefaults().getCapacity() / properties.getDefaults().getPerSecond(), Math::max);
+        return Duration.ofMillis(Math.max(1000, (long) Math.ceil(seconds * 1000)));
+    }
+
+    private static long seconds(long nanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(nanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+}
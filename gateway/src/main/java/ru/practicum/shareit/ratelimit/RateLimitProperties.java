@@ -0,0 +1,49 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Request budgets of the gateway. Every user gets a bucket per endpoint, endpoints are named by their
+ * mapping pattern, for example shareit.rate-limit.endpoints.[/bookings/owner].per-second=2.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+
+    /**
+     * Requests handled at once across all users; further requests are rejected instead of queueing
+     * in front of the server.
+     */
+    private int maxConcurrent = 100;
+
+    /**
+     * Retry-After sent with a request rejected because {@link #maxConcurrent} was reached.
+     */
+    private Duration shedRetryAfter = Duration.ofSeconds(1);
+
+    private Budget defaults = new Budget();
+
+    private Map<String, Budget> endpoints = new HashMap<>();
+
+    @Getter
+    @Setter
+    public static class Budget {
+        /**
+         * Requests a user can make in a burst.
+         */
+        private int capacity = 50;
+
+        /**
+         * Sustained requests per second of a user.
+         */
+        private double perSecond = 20;
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket kept as the time at which it will be full again, so taking a token is a single CAS.
+ */
+class TokenBucket {
+    private final long interval;
+    private final long burst;
+    private final AtomicLong fullAt;
+
+    TokenBucket(RateLimitProperties.Budget budget, long now) {
+        this.interval = Math.max(1, (long) (1_000_000_000L / budget.getPerSecond()));
+        this.burst = interval * budget.getCapacity();
+        this.fullAt = new AtomicLong(now);
+    }
+
+    /**
+     * Takes a token and returns 0, or returns the nanoseconds until a token is available.
+     */
+    long tryAcquire(long now) {
+        while (true) {
+            long current = fullAt.get();
+            long next = (current - now < 0 ? now : current) + interval;
+            long wait = next - now - burst;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -2,45 +2,53 @@ package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.CircuitBreakers;
+import ru.practicum.shareit.client.SingleFlight;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.Map;
 
 @Service
+@Profile("!reactive")
 public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                             ClientHttpRequestFactory requestFactory, SingleFlight singleFlight,
+                             CircuitBreakers circuitBreakers) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                singleFlight,
+                circuitBreakers.forApi(API_PREFIX)
         );
     }
 
-    public ResponseEntity<Object> createItemRequest(ItemRequestDto itemRequestDto, long userId) {
+    public ResponseEntity<byte[]> createItemRequest(ItemRequestDto itemRequestDto, long userId) {
         return post("", userId, itemRequestDto);
     }
 
-    public ResponseEntity<Object> getItemRequestById(Long requestId, long userId) {
+    public ResponseEntity<byte[]> getItemRequestById(Long requestId, long userId) {
         return get("/" + requestId, userId);
     }
 
-    public ResponseEntity<Object> findAllItemRequestByUser(long userId) {
+    public ResponseEntity<byte[]> findAllItemRequestByUser(long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> findAllItemRequest(long userId, int from, int size) {
+    public ResponseEntity<byte[]> findAllItemRequest(long userId, int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
         );
-        return get("/all", userId, parameters);
+        return get("/all?from={from}&size={size}", userId, parameters);
     }
 }
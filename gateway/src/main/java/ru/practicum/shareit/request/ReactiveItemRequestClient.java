@@ -0,0 +1,42 @@
+package ru.practicum.shareit.request;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.util.Map;
+
+@Service
+@Profile("reactive")
+public class ReactiveItemRequestClient extends ReactiveBaseClient {
+    private static final String API_PREFIX = "/requests";
+
+    public ReactiveItemRequestClient(@Value("${shareit-server.url}") String serverUrl, WebClient shareitWebClient) {
+        super(shareitWebClient.mutate().baseUrl(serverUrl + API_PREFIX).build());
+    }
+
+    public Mono<ResponseEntity<byte[]>> createItemRequest(ItemRequestDto itemRequestDto, long userId) {
+        return post("", userId, itemRequestDto);
+    }
+
+    public Mono<ResponseEntity<byte[]>> getItemRequestById(Long requestId, long userId) {
+        return get("/" + requestId, userId);
+    }
+
+    public Mono<ResponseEntity<byte[]>> findAllItemRequestByUser(long userId) {
+        return get("", userId);
+    }
+
+    public Mono<ResponseEntity<byte[]>> findAllItemRequest(long userId, int from, int size) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "size", size
+        );
+        return get("/all?from={from}&size={size}", userId, parameters);
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.request;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+
+@Controller
+@Profile("reactive")
+@RequestMapping(path = "/requests")
+@RequiredArgsConstructor
+@Slf4j
+@Validated
+public class ReactiveItemRequestController {
+    private final ReactiveItemRequestClient itemRequestClient;
+
+    @PostMapping
+    public Mono<ResponseEntity<byte[]>> createItemRequest(@Valid @RequestBody ItemRequestDto itemRequestDto,
+                                                          @RequestHeader("X-Sharer-User-Id") long userId) {
+        log.info("New itemRequest from user id {}", userId);
+        return itemRequestClient.createItemRequest(itemRequestDto, userId);
+    }
+
+    @GetMapping("/{requestId}")
+    public Mono<ResponseEntity<byte[]>> getItemRequestById(@PathVariable("requestId") Long requestId,
+                                                           @RequestHeader("X-Sharer-User-Id") long userId) {
+        log.info("Get itemRequest by id {}", requestId);
+        return itemRequestClient.getItemRequestById(requestId, userId);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<byte[]>> findAllItemRequestByUser(@RequestHeader("X-Sharer-User-Id") long userId) {
+        log.info("Get all itemRequest by user {}", userId);
+        return itemRequestClient.findAllItemRequestByUser(userId);
+    }
+
+    @GetMapping("/all")
+    public Mono<ResponseEntity<byte[]>> findAllItemRequest(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                           @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                           @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+        log.info("Get all itemRequest");
+        return itemRequestClient.findAllItemRequest(userId, from, size);
+    }
+}
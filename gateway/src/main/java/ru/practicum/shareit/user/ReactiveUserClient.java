@@ -0,0 +1,53 @@
+package ru.practicum.shareit.user;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.Map;
+
+@Service
+@Profile("reactive")
+public class ReactiveUserClient extends ReactiveBaseClient {
+    private static final String API_PREFIX = "/users";
+
+    public ReactiveUserClient(@Value("${shareit-server.url}") String serverUrl, WebClient shareitWebClient) {
+        super(shareitWebClient.mutate().baseUrl(serverUrl + API_PREFIX).build());
+    }
+
+    public Mono<ResponseEntity<byte[]>> createUser(UserDto userDto) {
+        return post("", userDto);
+    }
+
+    public Mono<ResponseEntity<byte[]>> updateUser(UserDto userDto, long userId) {
+        return patch("/" + userId, userDto);
+    }
+
+    public Mono<ResponseEntity<byte[]>> getUserById(long userId) {
+        return get("/" + userId);
+    }
+
+    public Mono<ResponseEntity<byte[]>> deleteUser(long userId) {
+        return delete("/" + userId, userId);
+    }
+
+    public Mono<ResponseEntity<byte[]>> getUsers(long afterId, int size) {
+        Map<String, Object> parameters = Map.of(
+                "afterId", afterId,
+                "size", size
+        );
+        return get("?afterId={afterId}&size={size}", null, parameters);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> exportUsers() {
+        return stream("/export", MediaType.APPLICATION_NDJSON);
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.user;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+
+@Controller
+@Profile("reactive")
+@RequestMapping(path = "/users")
+@RequiredArgsConstructor
+@Slf4j
+@Validated
+public class ReactiveUserController {
+    private final ReactiveUserClient userClient;
+
+    @PostMapping
+    public Mono<ResponseEntity<byte[]>> createUser(@Valid @RequestBody UserDto userDto) {
+        log.info("Creating user");
+        return userClient.createUser(userDto);
+    }
+
+    @PatchMapping("/{userId}")
+    public Mono<ResponseEntity<byte[]>> updateUser(@RequestBody UserDto userDto, @PathVariable("userId") long userId) {
+        log.info("Update user id {}", userId);
+        return userClient.updateUser(userDto, userId);
+    }
+
+    @GetMapping("/{userId}")
+    public Mono<ResponseEntity<byte[]>> getUserById(@PathVariable("userId") long userId) {
+        log.info("Get user by id {}", userId);
+        return userClient.getUserById(userId);
+    }
+
+    @DeleteMapping("/{userId}")
+    public Mono<ResponseEntity<byte[]>> deleteUser(@PathVariable("userId") long userId) {
+        log.info("Delete user {}", userId);
+        return userClient.deleteUser(userId);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<byte[]>> findAll(@PositiveOrZero @RequestParam(name = "afterId", defaultValue = "0") Long afterId,
+                                                @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+        log.info("Get users after id {}, size={}", afterId, size);
+        return userClient.getUsers(afterId, size);
+    }
+
+    @GetMapping("/export")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> exportUsers() {
+        log.info("Export users");
+        return userClient.exportUsers();
+    }
+}
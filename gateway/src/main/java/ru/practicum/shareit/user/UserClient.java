@@ -3,45 +3,65 @@ package ru.practicum.shareit.user;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.CircuitBreakers;
+import ru.practicum.shareit.client.SingleFlight;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.io.OutputStream;
+import java.util.Map;
+
 @Service
+@Profile("!reactive")
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory requestFactory, SingleFlight singleFlight,
+                      CircuitBreakers circuitBreakers) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                singleFlight,
+                circuitBreakers.forApi(API_PREFIX)
         );
     }
 
-    public ResponseEntity<Object> createUser(UserDto userDto) {
+    public ResponseEntity<byte[]> createUser(UserDto userDto) {
         return post("", userDto);
     }
 
-    public ResponseEntity<Object> updateUser(UserDto userDto, long userId) {
+    public ResponseEntity<byte[]> updateUser(UserDto userDto, long userId) {
         return patch("/" + userId, userDto);
     }
 
-    public ResponseEntity<Object> getUserById(long userId) {
+    public ResponseEntity<byte[]> getUserById(long userId) {
         return get("/" + userId);
 
     }
 
-    public ResponseEntity<Object> deleteUser(long userId) {
+    public ResponseEntity<byte[]> deleteUser(long userId) {
         return delete("/" + userId, userId);
     }
 
-    public ResponseEntity<Object> getAllUsers() {
-        return get("");
+    public ResponseEntity<byte[]> getUsers(long afterId, int size) {
+        Map<String, Object> parameters = Map.of(
+                "afterId", afterId,
+                "size", size
+        );
+        return get("?afterId={afterId}&size={size}", null, parameters);
+    }
+
+    public void exportUsers(OutputStream out) {
+        stream("/export", MediaType.APPLICATION_NDJSON, out);
     }
 }
@@ -2,15 +2,21 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
 
 @Controller
+@Profile("!reactive")
 @RequestMapping(path = "/users")
 @RequiredArgsConstructor
 @Slf4j
@@ -19,31 +25,41 @@ public class UserController {
     private final UserClient userClient;
 
     @PostMapping
-    public ResponseEntity<Object> createUser(@Valid @RequestBody UserDto userDto) {
+    public ResponseEntity<byte[]> createUser(@Valid @RequestBody UserDto userDto) {
         log.info("Creating user");
         return userClient.createUser(userDto);
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> updateUser(@RequestBody UserDto userDto, @PathVariable("userId") long userId) {
+    public ResponseEntity<byte[]> updateUser(@RequestBody UserDto userDto, @PathVariable("userId") long userId) {
         log.info("Update user id {}", userId);
         return userClient.updateUser(userDto, userId);
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> getUserById(@PathVariable("userId") long userId) {
+    public ResponseEntity<byte[]> getUserById(@PathVariable("userId") long userId) {
         log.info("Get user by id {}", userId);
         return userClient.getUserById(userId);
     }
 
     @DeleteMapping("/{userId}")
-    public ResponseEntity<Object> deleteUser(@PathVariable("userId") long userId) {
+    public ResponseEntity<byte[]> deleteUser(@PathVariable("userId") long userId) {
         log.info("Delete user {}", userId);
         return userClient.deleteUser(userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> findAll() {
-        return userClient.getAllUsers();
+    public ResponseEntity<byte[]> findAll(@PositiveOrZero @RequestParam(name = "afterId", defaultValue = "0") Long afterId,
+                                          @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+        log.info("Get users after id {}, size={}", afterId, size);
+        return userClient.getUsers(afterId, size);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        log.info("Export users");
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(userClient::exportUsers);
     }
 }
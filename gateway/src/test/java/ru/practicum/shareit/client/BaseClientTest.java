@@ -0,0 +1,56 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Only GETs are repeated after a failed connection, since repeating a write could apply it twice.
+ */
+class BaseClientTest {
+    private final AtomicInteger connects = new AtomicInteger();
+    private BaseClient client;
+
+    @BeforeEach
+    void setUp() {
+        RestTemplate rest = new RestTemplate((uri, method) -> {
+            connects.incrementAndGet();
+            throw new ConnectException("Connection refused");
+        });
+        rest.setUriTemplateHandler(new DefaultUriBuilderFactory("http://localhost:9090/items"));
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.getBreaker().setFailureThreshold(100);
+        properties.getRetry().setBackoff(Duration.ofMillis(1));
+        properties.getRetry().setMaxBackoff(Duration.ofMillis(1));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        client = new BaseClient(rest, new SingleFlight(true, meterRegistry),
+                new CircuitBreaker("/items", properties, meterRegistry));
+    }
+
+    @Test
+    void retriesGet() {
+        assertThrows(ResourceAccessException.class, () -> client.get("/1", 1));
+
+        assertEquals(3, connects.get());
+    }
+
+    @Test
+    void doesNotRetryWrites() {
+        assertThrows(ResourceAccessException.class, () -> client.post("", 1, Map.of("name", "drill")));
+        assertThrows(ResourceAccessException.class, () -> client.patch("/1", 1, Map.of("name", "drill")));
+        assertThrows(ResourceAccessException.class, () -> client.delete("/1", 1));
+
+        assertEquals(3, connects.get());
+    }
+}
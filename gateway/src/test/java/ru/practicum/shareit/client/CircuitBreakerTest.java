@@ -0,0 +1,172 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+import ru.practicum.shareit.exception.ServerUnavailableException;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+    private static final Duration OPEN = Duration.ofMillis(100);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger calls = new AtomicInteger();
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.getBreaker().setFailureThreshold(3);
+        properties.getBreaker().setOpenDuration(OPEN);
+        properties.getRetry().setBackoff(Duration.ofMillis(1));
+        properties.getRetry().setMaxBackoff(Duration.ofMillis(1));
+        breaker = new CircuitBreaker("/items", properties, meterRegistry);
+    }
+
+    @Test
+    void opensAfterFailuresInARow() {
+        open();
+
+        assertThrows(ServerUnavailableException.class, () -> breaker.execute(false, this::succeed));
+        assertEquals(3, calls.get());
+        assertEquals(1, meterRegistry.get("shareit.server.breaker.open").gauge().value());
+        assertEquals(1, meterRegistry.get("shareit.server.rejected").counter().count());
+    }
+
+    @Test
+    void successResetsFailureCount() {
+        fail(false, new ConnectException("refused"));
+        fail(false, new ConnectException("refused"));
+        breaker.execute(false, this::succeed);
+        fail(false, new ConnectException("refused"));
+        fail(false, new ConnectException("refused"));
+
+        assertEquals("ok", breaker.execute(false, this::succeed));
+    }
+
+    @Test
+    void successfulProbeClosesBreaker() throws InterruptedException {
+        open();
+        TimeUnit.MILLISECONDS.sleep(OPEN.toMillis() * 2);
+
+        assertEquals("ok", breaker.execute(false, this::succeed));
+        assertEquals("ok", breaker.execute(false, this::succeed));
+        assertEquals(0, meterRegistry.get("shareit.server.breaker.open").gauge().value());
+    }
+
+    @Test
+    void failedProbeOpensBreakerAgain() throws InterruptedException {
+        open();
+        TimeUnit.MILLISECONDS.sleep(OPEN.toMillis() * 2);
+
+        fail(false, new ConnectException("refused"));
+
+        assertThrows(ServerUnavailableException.class, () -> breaker.execute(false, this::succeed));
+        assertEquals(4, calls.get());
+    }
+
+    @Test
+    void onlyOneProbeAtATime() throws Exception {
+        open();
+        TimeUnit.MILLISECONDS.sleep(OPEN.toMillis() * 2);
+        CountDownLatch probing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> probe = CompletableFuture.supplyAsync(() -> breaker.execute(false, () -> {
+            probing.countDown();
+            await(release);
+            return "probe";
+        }));
+        assertTrue(probing.await(5, TimeUnit.SECONDS));
+
+        assertThrows(ServerUnavailableException.class, () -> breaker.execute(false, this::succeed));
+
+        release.countDown();
+        assertEquals("probe", probe.get(5, TimeUnit.SECONDS));
+        assertEquals("ok", breaker.execute(false, this::succeed));
+    }
+
+    @Test
+    void retriesRetryableCallWhenConnectionFails() {
+        String result = breaker.execute(true, () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new ResourceAccessException("refused", new ConnectException("refused"));
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(3, calls.get());
+        assertEquals(2, meterRegistry.get("shareit.server.retries").counter().count());
+    }
+
+    @Test
+    void doesNotRetryCallThatIsNotRetryable() {
+        fail(false, new ConnectException("refused"));
+
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void doesNotRetryTimeout() {
+        fail(true, new SocketTimeoutException("read timed out"));
+
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void shedsPoolTimeoutsWithoutOpening() {
+        for (int i = 0; i < 5; i++) {
+            assertThrows(ServerUnavailableException.class, () -> breaker.execute(true, () -> {
+                calls.incrementAndGet();
+                throw new ResourceAccessException("pool",
+                        new ConnectionPoolTimeoutException("Timeout waiting for connection from pool"));
+            }));
+        }
+
+        assertEquals(5, calls.get());
+        assertEquals(5, meterRegistry.get("shareit.server.shed").counter().count());
+        assertEquals(0, meterRegistry.get("shareit.server.breaker.open").gauge().value());
+        assertEquals("ok", breaker.execute(false, this::succeed));
+    }
+
+    private void open() {
+        for (int i = 0; i < 3; i++) {
+            fail(false, new ConnectException("refused"));
+        }
+    }
+
+    private void fail(boolean retryable, IOException cause) {
+        assertThrows(ResourceAccessException.class, () -> breaker.execute(retryable, () -> {
+            calls.incrementAndGet();
+            throw new ResourceAccessException(cause.getMessage(), cause);
+        }));
+    }
+
+    private String succeed() {
+        calls.incrementAndGet();
+        return "ok";
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
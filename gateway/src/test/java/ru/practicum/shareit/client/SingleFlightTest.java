@@ -0,0 +1,133 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight singleFlight = new SingleFlight(true, meterRegistry);
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    void concurrentCallersShareOneCall() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Object result = new Object();
+        CompletableFuture<Object> leader = CompletableFuture.supplyAsync(() -> singleFlight.execute("key",
+                blocking(release, () -> result)));
+        awaitCalls(1);
+        CompletableFuture<Object> follower = CompletableFuture.supplyAsync(() -> singleFlight.execute("key",
+                () -> {
+                    calls.incrementAndGet();
+                    return new Object();
+                }));
+        awaitCoalesced(1);
+
+        release.countDown();
+
+        assertSame(result, leader.get(5, TimeUnit.SECONDS));
+        assertSame(result, follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void followersGetTheLeadersFailure() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Object> leader = CompletableFuture.supplyAsync(() -> singleFlight.execute("key",
+                blocking(release, () -> {
+                    throw new IllegalStateException("server error");
+                })));
+        awaitCalls(1);
+        CompletableFuture<Object> follower = CompletableFuture.supplyAsync(() -> singleFlight.execute("key",
+                Object::new));
+        awaitCoalesced(1);
+
+        release.countDown();
+
+        Exception leaderError = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+        Exception followerError = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertTrue(leaderError.getCause() instanceof IllegalStateException);
+        assertTrue(followerError.getCause() instanceof IllegalStateException);
+    }
+
+    @Test
+    void laterCallerMakesFreshCall() {
+        singleFlight.execute("key", calls::incrementAndGet);
+        assertThrows(IllegalStateException.class, () -> singleFlight.execute("key", () -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("server error");
+        }));
+        singleFlight.execute("key", calls::incrementAndGet);
+
+        assertEquals(3, calls.get());
+        assertEquals(3, meterRegistry.get("shareit.server.calls").tag("result", "leader").counter().count());
+    }
+
+    @Test
+    void differentKeysDoNotShare() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Object> first = CompletableFuture.supplyAsync(() -> singleFlight.execute("first",
+                blocking(release, () -> "first")));
+        awaitCalls(1);
+
+        assertEquals("second", singleFlight.execute("second", () -> {
+            calls.incrementAndGet();
+            return "second";
+        }));
+
+        release.countDown();
+        assertEquals("first", first.get(5, TimeUnit.SECONDS));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void disabledCallsEveryTime() {
+        SingleFlight disabled = new SingleFlight(false, meterRegistry);
+
+        disabled.execute("key", calls::incrementAndGet);
+        disabled.execute("key", calls::incrementAndGet);
+
+        assertEquals(2, calls.get());
+    }
+
+    private <T> Supplier<T> blocking(CountDownLatch release, Supplier<T> call) {
+        return () -> {
+            calls.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return call.get();
+        };
+    }
+
+    private void awaitCalls(int expected) throws InterruptedException {
+        for (int i = 0; i < 500 && calls.get() < expected; i++) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        assertEquals(expected, calls.get());
+    }
+
+    private void awaitCoalesced(int expected) throws InterruptedException {
+        for (int i = 0; i < 500 && coalesced() < expected; i++) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        assertEquals(expected, coalesced());
+    }
+
+    private double coalesced() {
+        return meterRegistry.get("shareit.server.calls").tag("result", "coalesced").counter().count();
+    }
+}
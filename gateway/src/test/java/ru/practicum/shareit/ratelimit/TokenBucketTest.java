@@ -0,0 +1,81 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long START = 1_000 * SECOND;
+
+    @Test
+    void allowsBurstThenWaitsForRefill() {
+        TokenBucket bucket = new TokenBucket(budget(3, 2), START);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryAcquire(START));
+        }
+        long wait = bucket.tryAcquire(START);
+
+        assertEquals(SECOND / 2, wait);
+        assertTrue(bucket.tryAcquire(START + wait - 1) > 0);
+        assertEquals(0, bucket.tryAcquire(START + wait));
+    }
+
+    @Test
+    void idleBucketRefillsOnlyUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(budget(3, 2), START);
+        long later = START + 60 * SECOND;
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryAcquire(later));
+        }
+        assertTrue(bucket.tryAcquire(later) > 0);
+    }
+
+    @Test
+    void concurrentCallersTakeExactlyCapacity() throws Exception {
+        int capacity = 100;
+        TokenBucket bucket = new TokenBucket(budget(capacity, 1), START);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                int taken = 0;
+                for (int j = 0; j < capacity; j++) {
+                    if (bucket.tryAcquire(START) == 0) {
+                        taken++;
+                    }
+                }
+                return taken;
+            }));
+        }
+        start.countDown();
+        int taken = 0;
+        for (Future<Integer> result : results) {
+            taken += result.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(capacity, taken);
+    }
+
+    private static RateLimitProperties.Budget budget(int capacity, double perSecond) {
+        RateLimitProperties.Budget budget = new RateLimitProperties.Budget();
+        budget.setCapacity(capacity);
+        budget.setPerSecond(perSecond);
+        return budget;
+    }
+}
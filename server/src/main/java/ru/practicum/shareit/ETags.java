@@ -0,0 +1,40 @@
+package ru.practicum.shareit;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+public class ETags {
+    private static final int LENGTH = 16;
+
+    /**
+     * Strong entity tag for the response described by the given request parameters and fingerprints.
+     */
+    public static String of(Object... parts) {
+        StringBuilder value = new StringBuilder();
+        for (Object part : parts) {
+            if (part instanceof Fingerprint) {
+                Fingerprint fingerprint = (Fingerprint) part;
+                value.append(fingerprint.getRows()).append(':').append(fingerprint.getVersions()).append(':')
+                        .append(fingerprint.getLastId()).append(':').append(fingerprint.getMarks());
+            } else {
+                value.append(part);
+            }
+            value.append('|');
+        }
+        byte[] digest = sha256().digest(value.toString().getBytes(StandardCharsets.UTF_8));
+        StringBuilder tag = new StringBuilder("\"");
+        for (int i = 0; i < LENGTH; i++) {
+            tag.append(String.format("%02x", digest[i]));
+        }
+        return tag.append('"').toString();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit;
+
+/**
+ * Aggregate over the rows behind a response: their number, the sum of their versions, the highest id,
+ * and a counter of time-dependent state that only grows as time passes.
+ * Any insert, update or delete of those rows changes at least one of the values.
+ */
+public interface Fingerprint {
+    Long getRows();
+
+    Long getVersions();
+
+    Long getLastId();
+
+    Long getMarks();
+}
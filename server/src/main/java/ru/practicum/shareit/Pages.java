@@ -9,6 +9,14 @@ public class Pages {
         return PageRequest.of(from > 0 ? from / size : 0, size);
     }
 
+    public static Pageable first() {
+        return first(1);
+    }
+
+    public static Pageable first(int size) {
+        return PageRequest.of(0, size);
+    }
+
     public static PageRequest getPage(int from, int size, org.springframework.data.domain.Sort sort) {
         return PageRequest.of(from > 0 ? from / size : 0, size, sort);
     }
@@ -3,10 +3,14 @@ package ru.practicum.shareit.booking;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.service.BookingApprovals;
 import ru.practicum.shareit.booking.service.BookingService;
 
+import javax.servlet.http.HttpServletResponse;
 import java.util.Collection;
 
 @RestController
@@ -14,7 +18,10 @@ import java.util.Collection;
 @Slf4j
 @RequiredArgsConstructor
 public class BookingController {
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final BookingService bookingService;
+    private final BookingApprovals bookingApprovals;
 
     @PostMapping
     public BookingResponseDto createBooking(@RequestBody BookingRequestDto bookingDtoRequest,
@@ -28,7 +35,7 @@ public class BookingController {
                                            @PathVariable("bookingId") Long bookingId,
                                            @RequestHeader("X-Sharer-User-Id") long userId) {
         log.info("Received PATCH request: update booking status id {}", bookingId);
-        return bookingService.updateStatus(bookingId, userId, approved);
+        return bookingApprovals.updateStatus(bookingId, userId, approved);
     }
 
     @GetMapping("/{bookingId}")
@@ -42,17 +49,42 @@ public class BookingController {
     public Collection<BookingResponseDto> findAllBookingsByUser(@RequestHeader("X-Sharer-User-Id") long userId,
                                                                 @RequestParam(defaultValue = "ALL") String state,
                                                                 @RequestParam(defaultValue = "0") int from,
-                                                                @RequestParam(defaultValue = "10") int size) {
+                                                                @RequestParam(defaultValue = "10") int size,
+                                                                @RequestParam(required = false) String cursor,
+                                                                HttpServletResponse response,
+                                                                WebRequest request) {
         log.info("Received GET request: get all booking by user {}", userId);
-        return bookingService.findAllBookingsByUser(userId, state, from, size);
+        Collection<BookingResponseDto> bookings = bookingService.findAllBookingsByUser(userId, state, from, size,
+                cursor, request::checkNotModified);
+        if (bookings == null) {
+            return null;
+        }
+        return withNextCursor(bookings, size, response);
     }
 
     @GetMapping("/owner")
     public Collection<BookingResponseDto> findAllBookingsByOwner(@RequestHeader("X-Sharer-User-Id") long ownerId,
                                                                  @RequestParam(defaultValue = "ALL") String state,
                                                                  @RequestParam(defaultValue = "0") int from,
-                                                                 @RequestParam(defaultValue = "10") int size) {
+                                                                 @RequestParam(defaultValue = "10") int size,
+                                                                 @RequestParam(required = false) String cursor,
+                                                                 HttpServletResponse response,
+                                                                 WebRequest request) {
         log.info("Received GET request: get all booking by owner {}", ownerId);
-        return bookingService.findAllBookingsByOwner(ownerId, state, from, size);
+        Collection<BookingResponseDto> bookings = bookingService.findAllBookingsByOwner(ownerId, state, from, size,
+                cursor, request::checkNotModified);
+        if (bookings == null) {
+            return null;
+        }
+        return withNextCursor(bookings, size, response);
+    }
+
+    private Collection<BookingResponseDto> withNextCursor(Collection<BookingResponseDto> bookings, int size,
+                                                          HttpServletResponse response) {
+        if (bookings.size() == size) {
+            BookingResponseDto last = bookings.stream().reduce((first, second) -> second).orElseThrow();
+            response.setHeader(NEXT_CURSOR_HEADER, BookingCursor.after(last).encode());
+        }
+        return bookings;
     }
 }
@@ -1,17 +1,24 @@
 package ru.practicum.shareit.booking.mapper;
 
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.NullValuePropertyMappingStrategy;
 import ru.practicum.shareit.booking.dto.BookingDtoForItem;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingShort;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.mapper.ItemMapper;
 
-@Mapper(componentModel = "spring", nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+@Mapper(componentModel = "spring", nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE,
+        uses = ItemMapper.class)
 public interface BookingMapper {
+    @Mapping(target = "version", ignore = true)
     Booking dtoToBooking(BookingRequestDto bookingDto);
 
     BookingResponseDto bookingToDto(Booking booking);
 
     BookingDtoForItem bookingToDtoForItem(Booking booking);
+
+    BookingDtoForItem shortToDtoForItem(BookingShort booking);
 }
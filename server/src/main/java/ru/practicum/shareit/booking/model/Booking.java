@@ -40,6 +40,9 @@ public class Booking {
     @Enumerated(EnumType.STRING)
     private Status status;
 
+    @Version
+    private long version;
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -4,67 +4,152 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.Fingerprint;
 import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingShort;
 import ru.practicum.shareit.booking.model.Booking;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
-    List<Booking> findAllBookingByBookerIdAndStatusOrderByStartDesc(Long userId, Status approved, Pageable page);
-
-    List<Booking> findAllBookingByBookerIdOrderByStartDesc(Long userId, Pageable page);
-
-    List<Booking> findAllBookingByBookerIdAndStartIsBeforeAndEndIsAfterOrderByStartDesc(Long userId, LocalDateTime
-            now, LocalDateTime now1, Pageable page);
-
-    List<Booking> findAllBookingByBookerIdAndEndBeforeOrderByStartDesc(Long userId, LocalDateTime now, Pageable page);
-
-    Collection<Booking> findAllBookingByBookerIdAndEndBeforeOrderByStartDesc(Long userId, LocalDateTime now);
-
-    List<Booking> findAllBookingByBookerIdAndStartIsAfterOrderByStartDesc(Long userId, LocalDateTime now, Pageable page);
-
-    @Query(value = "select b.* " +
-            "from bookings AS b left join items as i on b.item_id = i.id " +
-            "where i.owner_id = ?1 " +
-            "group by b.id " +
-            "order by b.start_date DESC", nativeQuery = true)
-    List<Booking> findAllBookingByOwner(Long ownerId, Pageable page);
-
-    @Query(value = "select b.* " +
-            "from bookings as b left join items as i on b.item_id = i.id " +
-            "where i.owner_id = ?1 and b.start_date < ?2 and b.end_date > ?2 " +
-            "group by b.id " +
-            "order by b.start_date DESC", nativeQuery = true)
-    List<Booking> findAllBookingByOwnerCurrent(Long ownerId, LocalDateTime now, Pageable page);
-
-    @Query(value = "select b.* " +
-            "from bookings as b left join items as i on b.item_id = i.id " +
-            "where i.owner_id = ?1 and b.end_date < ?2 " +
-            "group by b.id " +
-            "order by b.start_date DESC", nativeQuery = true)
-    List<Booking> findAllBookingByOwnerPast(Long ownerId, LocalDateTime now, Pageable page);
-
-    @Query(value = "select b.* " +
-            "from bookings as b left join items as i on b.item_id = i.id " +
-            "where i.owner_id = ?1 and b.start_date > ?2 " +
-            "group by b.id " +
-            "order by b.start_date DESC", nativeQuery = true)
-    List<Booking> findAllBookingByOwnerFuture(Long ownerId, LocalDateTime now, Pageable page);
-
-    @Query(value = "select b.* " +
-            "from bookings as b left join items as i on b.item_id = i.id " +
-            "where i.owner_id = ?1 and b.status LIKE ?2 " +
-            "group by b.id " +
-            "order by b.start_date DESC", nativeQuery = true)
-    List<Booking> findAllBookingByOwnerByStatus(Long ownerId, String waiting, Pageable page);
-
-    List<Booking> findBookingByItemIdAndStartIsBeforeAndStatusOrderByStartAsc(Long itemId, LocalDateTime now, Status
-            approved);
-
-    List<Booking> findBookingByItemIdAndStartIsAfterAndStatusOrderByStartAsc(Long itemId, LocalDateTime now, Status
-            approved);
+    @Query("select b.item.id from Booking as b where b.id = ?1")
+    Optional<Long> findItemIdById(Long bookingId);
+
+    @Query("select case when count(b) > 0 then true else false end from Booking as b " +
+            "where b.booker.id = ?1 and b.item.id = ?2 and b.end < ?3")
+    boolean existsByBookerIdAndItemIdAndEndBefore(Long bookerId, Long itemId, LocalDateTime now);
+
+    @Query("select case when count(b) > 0 then true else false end from Booking as b " +
+            "where b.item.id = ?1 and b.status = ?2 and b.start < ?3 and b.end > ?4")
+    boolean existsByItemIdAndStatusAndStartBeforeAndEndAfter(Long itemId, Status status, LocalDateTime end,
+                                                             LocalDateTime start);
+
+    @Query("select case when count(b) > 0 then true else false end from Booking as b " +
+            "where b.item.id = ?1 and b.status = ?2 and b.start < ?3 and b.end > ?4 and b.id <> ?5")
+    boolean existsByItemIdAndStatusAndStartBeforeAndEndAfterAndIdNot(Long itemId, Status status, LocalDateTime end,
+                                                                     LocalDateTime start, Long id);
+
+    @Query("select b from Booking as b " +
+            "join fetch b.item as i join fetch i.owner join fetch b.booker " +
+            "where b.booker.id = ?1 " +
+            "and b.start <= ?2 and (b.start < ?2 or b.id < ?3) " +
+            "order by b.start DESC, b.id DESC")
+    List<Booking> findAllByBooker(Long bookerId, LocalDateTime start, Long id, Pageable page);
+
+    @Query("select b from Booking as b " +
+            "join fetch b.item as i join fetch i.owner join fetch b.booker " +
+            "where b.booker.id = ?1 and b.status = ?4 " +
+            "and b.start <= ?2 and (b.start < ?2 or b.id < ?3) " +
+            "order by b.start DESC, b.id DESC")
+    List<Booking> findAllByBookerAndStatus(Long bookerId, LocalDateTime start, Long id, Status status, Pageable page);
+
+    @Query("select b from Booking as b " +
+            "join fetch b.item as i join fetch i.owner join fetch b.booker " +
+            "where b.booker.id = ?1 and b.start < ?4 and b.end > ?4 " +
+            "and b.start <= ?2 and (b.start < ?2 or b.id < ?3) " +
+            "order by b.start DESC, b.id DESC")
+    List<Booking> findCurrentByBooker(Long bookerId, LocalDateTime start, Long id, LocalDateTime now, Pageable page);
+
+    @Query("select b from Booking as b " +
+            "join fetch b.item as i join fetch i.owner join fetch b.booker " +
+            "where b.booker.id = ?1 and b.end < ?4 " +
+            "and b.start <= ?2 and (b.start < ?2 or b.id < ?3) " +
+            "order by b.start DESC, b.id DESC")
+    List<Booking> findPastByBooker(Long bookerId, LocalDateTime start, Long id, LocalDateTime now, Pageable page);
+
+    @Query("select b from Booking as b " +
+            "join fetch b.item as i join fetch i.owner join fetch b.booker " +
+            "where b.booker.id = ?1 and b.start > ?4 " +
+            "and b.start <= ?2 and (b.start < ?2 or b.id < ?3) " +
+            "order by b.start DESC, b.id DESC")
+    List<Booking> findFutureByBooker(Long bookerId, LocalDateTime start, Long id, LocalDateTime now, Pageable page);
+
+    @Query("select b from Booking as b " +
+            "join fetch b.item as i join fetch i.owner join fetch b.booker " +
+            "where i.owner.id = ?1 " +
+            "and b.start <= ?2 and (b.start < ?2 or b.id < ?3) " +
+            "order by b.start DESC, b.id DESC")
+    List<Booking> findAllByOwner(Long ownerId, LocalDateTime start, Long id, Pageable page);
+
+    @Query("select b from Booking as b " +
+            "join fetch b.item as i join fetch i.owner join fetch b.booker " +
+            "where i.owner.id = ?1 and b.status = ?4 " +
+            "and b.start <= ?2 and (b.start < ?2 or b.id < ?3) " +
+            "order by b.start DESC, b.id DESC")
+    List<Booking> findAllByOwnerAndStatus(Long ownerId, LocalDateTime start, Long id, Status status, Pageable page);
+
+    @Query("select b from Booking as b " +
+            "join fetch b.item as i join fetch i.owner join fetch b.booker " +
+            "where i.owner.id = ?1 and b.start < ?4 and b.end > ?4 " +
+            "and b.start <= ?2 and (b.start < ?2 or b.id < ?3) " +
+            "order by b.start DESC, b.id DESC")
+    List<Booking> findCurrentByOwner(Long ownerId, LocalDateTime start, Long id, LocalDateTime now, Pageable page);
+
+    @Query("select b from Booking as b " +
+            "join fetch b.item as i join fetch i.owner join fetch b.booker " +
+            "where i.owner.id = ?1 and b.end < ?4 " +
+            "and b.start <= ?2 and (b.start < ?2 or b.id < ?3) " +
+            "order by b.start DESC, b.id DESC")
+    List<Booking> findPastByOwner(Long ownerId, LocalDateTime start, Long id, LocalDateTime now, Pageable page);
+
+    @Query("select b from Booking as b " +
+            "join fetch b.item as i join fetch i.owner join fetch b.booker " +
+            "where i.owner.id = ?1 and b.start > ?4 " +
+            "and b.start <= ?2 and (b.start < ?2 or b.id < ?3) " +
+            "order by b.start DESC, b.id DESC")
+    List<Booking> findFutureByOwner(Long ownerId, LocalDateTime start, Long id, LocalDateTime now, Pageable page);
+
+    @Query("select b.id as id, b.item.id as itemId, b.booker.id as bookerId, b.start as start, b.end as end, " +
+            "b.status as status " +
+            "from Booking as b " +
+            "where b.item.id = ?1 and b.start < ?2 and b.status = ?3 " +
+            "order by b.start DESC, b.id DESC")
+    List<BookingShort> findLastBookingByItemId(Long itemId, LocalDateTime now, Status status, Pageable page);
+
+    @Query("select b.id as id, b.item.id as itemId, b.booker.id as bookerId, b.start as start, b.end as end, " +
+            "b.status as status " +
+            "from Booking as b " +
+            "where b.item.id = ?1 and b.start > ?2 and b.status = ?3 " +
+            "order by b.start, b.id")
+    List<BookingShort> findNextBookingByItemId(Long itemId, LocalDateTime now, Status status, Pageable page);
+
+    @Query("select b.id as id, b.item.id as itemId, b.booker.id as bookerId, b.start as start, b.end as end, " +
+            "b.status as status " +
+            "from Booking as b " +
+            "where b.item.id = ?1 and b.status = ?2 and b.start < ?4 and b.end > ?3")
+    List<BookingShort> findAllByItemIdAndStatusOverlapping(Long itemId, Status status, LocalDateTime from,
+                                                           LocalDateTime to);
+
+    @Query(value = "select t.id as \"id\", t.item_id as \"itemId\", t.booker_id as \"bookerId\", " +
+            "t.start_date as \"start\", t.end_date as \"end\", t.status as \"status\" " +
+            "from (select b.*, row_number() over (partition by b.item_id order by b.start_date DESC, b.id DESC) as rn " +
+            "from bookings as b " +
+            "where b.item_id in (?1) and b.start_date < ?2 and b.status = ?3) as t " +
+            "where t.rn = 1", nativeQuery = true)
+    List<BookingShort> findLastBookingsByItemIds(Collection<Long> itemIds, LocalDateTime now, String status);
+
+    @Query(value = "select t.id as \"id\", t.item_id as \"itemId\", t.booker_id as \"bookerId\", " +
+            "t.start_date as \"start\", t.end_date as \"end\", t.status as \"status\" " +
+            "from (select b.*, row_number() over (partition by b.item_id order by b.start_date, b.id) as rn " +
+            "from bookings as b " +
+            "where b.item_id in (?1) and b.start_date > ?2 and b.status = ?3) as t " +
+            "where t.rn = 1", nativeQuery = true)
+    List<BookingShort> findNextBookingsByItemIds(Collection<Long> itemIds, LocalDateTime now, String status);
+
+    @Query("select count(b) as rows, coalesce(sum(b.version), 0) as versions, coalesce(max(b.id), 0) as lastId, " +
+            "coalesce(sum(case when b.start < ?3 then 1 else 0 end), 0) as marks " +
+            "from Booking as b " +
+            "where b.item.id in ?1 and b.status = ?2")
+    Fingerprint fingerprintByItemIdsAndStatus(Collection<Long> itemIds, Status status, LocalDateTime now);
+
+    @Query("select count(b) as rows, coalesce(sum(b.version), 0) as versions, coalesce(max(b.id), 0) as lastId, " +
+            "coalesce(sum(case when b.start < ?3 then 1 else 0 end), 0) as marks " +
+            "from Booking as b " +
+            "where b.item.request.id in ?1 and b.status = ?2")
+    Fingerprint fingerprintByRequestIdsAndStatus(Collection<Long> requestIds, Status status, LocalDateTime now);
 }
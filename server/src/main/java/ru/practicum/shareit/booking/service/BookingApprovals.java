@@ -0,0 +1,31 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.util.Optional;
+
+/**
+ * Runs an approval of {@link BookingService#updateStatus} inside the lock of its item, so the lock is taken
+ * before the approval transaction begins, see {@link ItemLocks}.
+ */
+@Service
+@RequiredArgsConstructor
+public class BookingApprovals {
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private final ItemLocks itemLocks;
+
+    public BookingResponseDto updateStatus(Long bookingId, Long userId, boolean approved) {
+        if (!approved || !itemLocks.isEnabled()) {
+            return bookingService.updateStatus(bookingId, userId, approved);
+        }
+        Optional<Long> itemId = bookingRepository.findItemIdById(bookingId);
+        if (itemId.isEmpty()) {
+            return bookingService.updateStatus(bookingId, userId, true);
+        }
+        return itemLocks.withLock(itemId.get(), () -> bookingService.updateStatus(bookingId, userId, true));
+    }
+}
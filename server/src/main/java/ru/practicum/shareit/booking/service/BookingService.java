@@ -1,9 +1,11 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 
 import java.util.Collection;
+import java.util.function.Predicate;
 
 public interface BookingService {
     BookingResponseDto createBooking(BookingRequestDto bookingDtoRequest, Long userId);
@@ -14,5 +16,23 @@ public interface BookingService {
 
     Collection<BookingResponseDto> findAllBookingsByUser(Long userId, String status, int from, int size);
 
+    Collection<BookingResponseDto> findAllBookingsByUser(Long userId, String status, BookingCursor cursor, int size);
+
     Collection<BookingResponseDto> findAllBookingsByOwner(Long userId, String state, int from, int size);
+
+    Collection<BookingResponseDto> findAllBookingsByOwner(Long userId, String state, BookingCursor cursor, int size);
+
+    /**
+     * Page of bookings by user, from the cursor when it is given. The page is loaded once and mapped only if
+     * {@code notModified} rejects its entity tag, otherwise the result is null.
+     */
+    Collection<BookingResponseDto> findAllBookingsByUser(Long userId, String state, int from, int size, String cursor,
+                                                         Predicate<String> notModified);
+
+    /**
+     * Page of bookings by owner, loaded and tagged like {@link #findAllBookingsByUser(Long, String, int, int,
+     * String, Predicate)}.
+     */
+    Collection<BookingResponseDto> findAllBookingsByOwner(Long ownerId, String state, int from, int size,
+                                                          String cursor, Predicate<String> notModified);
 }
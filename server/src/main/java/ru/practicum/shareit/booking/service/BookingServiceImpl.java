@@ -2,15 +2,22 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.ETags;
 import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.BookingConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.StatusException;
 import ru.practicum.shareit.exception.ValidationException;
@@ -24,6 +31,7 @@ import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -31,7 +39,11 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class BookingServiceImpl implements BookingService {
+    private static final String OVERLAP_CONSTRAINT = "EX_BOOKINGS_ITEM_APPROVED";
+
     private final BookingRepository bookingRepository;
+    private final ItemCalendar itemCalendar;
+    private final ApplicationEventPublisher eventPublisher;
     private final ItemService itemService;
     private final UserService userService;
     private final BookingMapper bookingMapper;
@@ -62,12 +74,17 @@ public class BookingServiceImpl implements BookingService {
             log.info("item " + itemId + " is not available");
             throw new ValidationException("item " + itemId + " is not available");
         }
+        if (bookingRepository.existsByItemIdAndStatusAndStartBeforeAndEndAfter(itemId, Status.APPROVED, end, start)) {
+            log.info("item " + itemId + " is already booked from " + start + " to " + end);
+            throw new BookingConflictException("item " + itemId + " is already booked from " + start + " to " + end);
+        }
         UserDto user = userService.getUserById(userId);
         Booking booking = bookingMapper.dtoToBooking(bookingDtoRequest);
         booking.setItem(itemMapper.dtoToItem(item));
         booking.setBooker(userMapper.dtoToUser(user));
         booking.setStatus(Status.WAITING);
         Booking bookingSaved = bookingRepository.save(booking);
+        eventPublisher.publishEvent(new BookingChangedEvent(itemId));
         return bookingMapper.bookingToDto(bookingSaved);
     }
 
@@ -81,11 +98,16 @@ public class BookingServiceImpl implements BookingService {
                 throw new StatusException("change status by user " + userId + " after approve");
             }
             if (approved) {
+                checkOverlap(booking);
                 booking.setStatus(Status.APPROVED);
             } else {
                 booking.setStatus(Status.REJECTED);
             }
-            Booking bookingSaved = bookingRepository.save(booking);
+            Booking bookingSaved = saveBooking(booking);
+            if (approved) {
+                itemCalendar.onApproved(bookingSaved);
+            }
+            eventPublisher.publishEvent(new BookingChangedEvent(bookingSaved.getItem().getId()));
             return bookingMapper.bookingToDto(bookingSaved);
         } else {
             log.info("no bookings found for the user " + userId);
@@ -107,74 +129,147 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public Collection<BookingResponseDto> findAllBookingsByUser(Long userId, String state, int from, int size) {
-        Pageable page = Pages.getPage(from, size);
+        return toDto(findBookingsByUser(userId, state, BookingCursor.FIRST, Pages.getPage(from, size)));
+    }
+
+    @Override
+    public Collection<BookingResponseDto> findAllBookingsByUser(Long userId, String state, BookingCursor cursor,
+                                                                int size) {
+        return toDto(findBookingsByUser(userId, state, cursor, Pages.first(size)));
+    }
+
+    @Override
+    public Collection<BookingResponseDto> findAllBookingsByOwner(Long ownerId, String state, int from, int size) {
+        return toDto(findBookingsByOwner(ownerId, state, BookingCursor.FIRST, Pages.getPage(from, size)));
+    }
+
+    @Override
+    public Collection<BookingResponseDto> findAllBookingsByOwner(Long ownerId, String state, BookingCursor cursor,
+                                                                 int size) {
+        return toDto(findBookingsByOwner(ownerId, state, cursor, Pages.first(size)));
+    }
+
+    @Override
+    public Collection<BookingResponseDto> findAllBookingsByUser(Long userId, String state, int from, int size,
+                                                                String cursor, Predicate<String> notModified) {
+        List<Booking> bookings = cursor == null
+                ? findBookingsByUser(userId, state, BookingCursor.FIRST, Pages.getPage(from, size))
+                : findBookingsByUser(userId, state, BookingCursor.decode(cursor), Pages.first(size));
+        return notModified.test(ETags.of(state, from, size, cursor, versions(bookings))) ? null : toDto(bookings);
+    }
 
+    @Override
+    public Collection<BookingResponseDto> findAllBookingsByOwner(Long ownerId, String state, int from, int size,
+                                                                 String cursor, Predicate<String> notModified) {
+        List<Booking> bookings = cursor == null
+                ? findBookingsByOwner(ownerId, state, BookingCursor.FIRST, Pages.getPage(from, size))
+                : findBookingsByOwner(ownerId, state, BookingCursor.decode(cursor), Pages.first(size));
+        return notModified.test(ETags.of(state, from, size, cursor, versions(bookings))) ? null : toDto(bookings);
+    }
+
+    /**
+     * Versions of the bookings on a page and of the item, owner and booker embedded in each of them.
+     */
+    private static List<String> versions(List<Booking> bookings) {
+        return bookings.stream()
+                .map(booking -> booking.getId() + ":" + booking.getVersion() + ":" + booking.getItem().getVersion() +
+                        ":" + booking.getItem().getOwner().getVersion() + ":" + booking.getBooker().getVersion())
+                .collect(Collectors.toList());
+    }
+
+    private List<Booking> findBookingsByUser(Long userId, String state, BookingCursor cursor, Pageable page) {
         UserDto user = userService.getUserById(userId);
+        LocalDateTime start = cursor.getStart();
+        Long id = cursor.getId();
         List<Booking> bookings;
 
         switch (state) {
             case "ALL":
-                bookings = bookingRepository.findAllBookingByBookerIdOrderByStartDesc(userId, page);
+                bookings = bookingRepository.findAllByBooker(userId, start, id, page);
                 break;
             case "CURRENT":
-                bookings = bookingRepository.findAllBookingByBookerIdAndStartIsBeforeAndEndIsAfterOrderByStartDesc(
-                        userId, LocalDateTime.now(), LocalDateTime.now(), page);
+                bookings = bookingRepository.findCurrentByBooker(userId, start, id, LocalDateTime.now(), page);
                 break;
             case "PAST":
-                bookings = bookingRepository.findAllBookingByBookerIdAndEndBeforeOrderByStartDesc(userId,
-                        LocalDateTime.now(), page);
+                bookings = bookingRepository.findPastByBooker(userId, start, id, LocalDateTime.now(), page);
                 break;
             case "FUTURE":
-                bookings = bookingRepository.findAllBookingByBookerIdAndStartIsAfterOrderByStartDesc(userId,
-                        LocalDateTime.now(), page);
+                bookings = bookingRepository.findFutureByBooker(userId, start, id, LocalDateTime.now(), page);
                 break;
             case "WAITING":
-                bookings = bookingRepository.findAllBookingByBookerIdAndStatusOrderByStartDesc(userId, Status.WAITING, page);
+                bookings = bookingRepository.findAllByBookerAndStatus(userId, start, id, Status.WAITING, page);
                 break;
             case "REJECTED":
-                bookings = bookingRepository.findAllBookingByBookerIdAndStatusOrderByStartDesc(userId, Status.REJECTED, page);
+                bookings = bookingRepository.findAllByBookerAndStatus(userId, start, id, Status.REJECTED, page);
                 break;
             default:
                 log.info("Unknown state: UNSUPPORTED_STATUS");
                 throw new StatusException(state);
         }
-        return bookings.stream().map(bookingMapper::bookingToDto).collect(Collectors.toList());
+        return bookings;
     }
 
-    @Override
-    public Collection<BookingResponseDto> findAllBookingsByOwner(Long ownerId, String state, int from, int size) {
-        Pageable page = Pages.getPage(from, size);
-
+    private List<Booking> findBookingsByOwner(Long ownerId, String state, BookingCursor cursor, Pageable page) {
         UserDto user = userService.getUserById(ownerId);
+        LocalDateTime start = cursor.getStart();
+        Long id = cursor.getId();
         List<Booking> bookings;
 
         switch (state) {
             case "ALL":
-                bookings = bookingRepository.findAllBookingByOwner(ownerId, page);
+                bookings = bookingRepository.findAllByOwner(ownerId, start, id, page);
                 break;
             case "CURRENT":
-                bookings = bookingRepository.findAllBookingByOwnerCurrent(ownerId, LocalDateTime.now(), page);
+                bookings = bookingRepository.findCurrentByOwner(ownerId, start, id, LocalDateTime.now(), page);
                 break;
             case "PAST":
-                bookings = bookingRepository.findAllBookingByOwnerPast(ownerId, LocalDateTime.now(), page);
+                bookings = bookingRepository.findPastByOwner(ownerId, start, id, LocalDateTime.now(), page);
                 break;
             case "FUTURE":
-                bookings = bookingRepository.findAllBookingByOwnerFuture(ownerId, LocalDateTime.now(), page);
+                bookings = bookingRepository.findFutureByOwner(ownerId, start, id, LocalDateTime.now(), page);
                 break;
             case "WAITING":
-                bookings = bookingRepository.findAllBookingByOwnerByStatus(ownerId, String.valueOf(Status.WAITING), page);
+                bookings = bookingRepository.findAllByOwnerAndStatus(ownerId, start, id, Status.WAITING, page);
                 break;
             case "REJECTED":
-                bookings = bookingRepository.findAllBookingByOwnerByStatus(ownerId, String.valueOf(Status.REJECTED), page);
+                bookings = bookingRepository.findAllByOwnerAndStatus(ownerId, start, id, Status.REJECTED, page);
                 break;
             default:
                 log.info("Unknown state: UNSUPPORTED_STATUS");
                 throw new StatusException(state);
         }
+        return bookings;
+    }
 
+    private Collection<BookingResponseDto> toDto(List<Booking> bookings) {
         return bookings.stream().map(bookingMapper::bookingToDto).collect(Collectors.toList());
     }
 
+    private void checkOverlap(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        if (bookingRepository.existsByItemIdAndStatusAndStartBeforeAndEndAfterAndIdNot(itemId, Status.APPROVED,
+                booking.getEnd(), booking.getStart(), booking.getId())) {
+            log.info("booking " + booking.getId() + " overlaps an approved booking of item " + itemId);
+            throw new BookingConflictException("booking " + booking.getId() + " overlaps an approved booking of item " +
+                    itemId);
+        }
+    }
+
+    private Booking saveBooking(Booking booking) {
+        try {
+            return bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            if (message != null && message.toUpperCase().contains(OVERLAP_CONSTRAINT)) {
+                log.info("booking " + booking.getId() + " overlaps an approved booking of item " +
+                        booking.getItem().getId());
+                throw new BookingConflictException("booking " + booking.getId() +
+                        " overlaps an approved booking of item " + booking.getItem().getId());
+            }
+            throw e;
+        }
+    }
+
     private Booking checkBooking(Long bookingId) {
         Optional<Booking> bookingOptional = bookingRepository.findById(bookingId);
         if (bookingOptional.isEmpty()) {
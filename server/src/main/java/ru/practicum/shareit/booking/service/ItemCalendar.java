@@ -0,0 +1,197 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingShort;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.config.CacheConfig;
+import ru.practicum.shareit.item.dto.IntervalDto;
+import ru.practicum.shareit.user.event.UserChangedEvent;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Cached approved booking intervals of an item, for the whole days around the last requested window.
+ * A window that is not covered is loaded from the database and replaces the cached one. Entries live
+ * in the bounded, expiring item calendar cache of {@link CacheConfig}, so an approval committed by another
+ * server instance shows up here after the cache TTL at the latest; overlapping bookings are still rejected
+ * by the database. Loads and committed approvals of an item hold the item's stripe lock, so a slow load
+ * cannot put back a window that misses an approval.
+ */
+@Component
+public class ItemCalendar {
+    private static final int STRIPES = 1024;
+
+    private final BookingRepository bookingRepository;
+    private final Cache<Object, Object> calendars;
+    private final Lock[] locks = new Lock[STRIPES];
+
+    public ItemCalendar(BookingRepository bookingRepository, CacheManager entityCacheManager) {
+        this.bookingRepository = bookingRepository;
+        this.calendars = entityCacheManager.getCache(CacheConfig.ITEM_CALENDARS);
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Returns the merged busy intervals of the item clipped to [from, to), in start order.
+     */
+    public List<IntervalDto> getBusy(Long itemId, LocalDateTime from, LocalDateTime to) {
+        Intervals intervals = (Intervals) calendars.get(itemId);
+        if (intervals == null || !intervals.covers(from, to)) {
+            intervals = load(itemId, from, to);
+        }
+        return intervals.busy(from, to);
+    }
+
+    public void onApproved(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        Interval interval = new Interval(booking.getId(), booking.getStart(), booking.getEnd());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                Lock lock = lock(itemId);
+                lock.lock();
+                try {
+                    Intervals intervals = (Intervals) calendars.get(itemId);
+                    if (intervals != null) {
+                        intervals.add(interval);
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        });
+    }
+
+    /**
+     * A deleted user takes their items and the bookings of those items along.
+     */
+    @TransactionalEventListener
+    public void onUserChanged(UserChangedEvent event) {
+        event.getDeletedItemIds().forEach(calendars::remove);
+    }
+
+    private Intervals load(Long itemId, LocalDateTime from, LocalDateTime to) {
+        Lock lock = lock(itemId);
+        lock.lock();
+        try {
+            Intervals intervals = (Intervals) calendars.get(itemId);
+            if (intervals != null && intervals.covers(from, to)) {
+                return intervals;
+            }
+            LocalDateTime windowFrom = from.truncatedTo(ChronoUnit.DAYS);
+            LocalDateTime windowTo = to.truncatedTo(ChronoUnit.DAYS).plusDays(1);
+            intervals = new Intervals(windowFrom, windowTo);
+            for (BookingShort booking : bookingRepository.findAllByItemIdAndStatusOverlapping(itemId,
+                    Status.APPROVED, windowFrom, windowTo)) {
+                intervals.add(new Interval(booking.getId(), booking.getStart(), booking.getEnd()));
+            }
+            calendars.put(itemId, intervals);
+            return intervals;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Lock lock(Long itemId) {
+        return locks[Math.floorMod(Long.hashCode(itemId), STRIPES)];
+    }
+
+    /**
+     * Intervals reaching into [from, to), ordered by start. Lookups begin at the longest stored duration
+     * before the window, which bounds the intervals that may still reach into it even if some of them overlap.
+     */
+    private static final class Intervals {
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+        private final NavigableSet<Interval> byStart = new TreeSet<>(Comparator.comparing((Interval interval) ->
+                interval.start).thenComparing(interval -> interval.bookingId));
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private Duration longest = Duration.ZERO;
+
+        private Intervals(LocalDateTime from, LocalDateTime to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        private boolean covers(LocalDateTime windowFrom, LocalDateTime windowTo) {
+            return !windowFrom.isBefore(from) && !windowTo.isAfter(to);
+        }
+
+        private void add(Interval interval) {
+            if (!interval.start.isBefore(to) || !interval.end.isAfter(from)) {
+                return;
+            }
+            lock.writeLock().lock();
+            try {
+                byStart.add(interval);
+                Duration duration = Duration.between(interval.start, interval.end);
+                if (duration.compareTo(longest) > 0) {
+                    longest = duration;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private List<IntervalDto> busy(LocalDateTime from, LocalDateTime to) {
+            List<IntervalDto> busy = new ArrayList<>();
+            lock.readLock().lock();
+            try {
+                Interval lowest = new Interval(Long.MIN_VALUE, from.minus(longest), null);
+                for (Interval interval : byStart.tailSet(lowest, true)) {
+                    if (!interval.start.isBefore(to)) {
+                        break;
+                    }
+                    if (!interval.end.isAfter(from)) {
+                        continue;
+                    }
+                    LocalDateTime start = interval.start.isBefore(from) ? from : interval.start;
+                    LocalDateTime end = interval.end.isAfter(to) ? to : interval.end;
+                    IntervalDto last = busy.isEmpty() ? null : busy.get(busy.size() - 1);
+                    if (last != null && !start.isAfter(last.getEnd())) {
+                        if (end.isAfter(last.getEnd())) {
+                            last.setEnd(end);
+                        }
+                    } else {
+                        busy.add(new IntervalDto(start, end));
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            return busy;
+        }
+    }
+
+    private static final class Interval {
+        private final long bookingId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+
+        private Interval(long bookingId, LocalDateTime start, LocalDateTime end) {
+            this.bookingId = bookingId;
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exception.BookingConflictException;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped per-item locks that serialize booking approvals of the same item on databases without
+ * the exclusion constraint of the PostgreSQL migrations, where nothing else stops two overlapping approvals.
+ * On PostgreSQL the constraint decides and no lock is taken.
+ * A lock is taken before the approval transaction begins and released after it completes, so a waiting
+ * approval holds no pooled connection and checks for overlaps against already committed bookings.
+ * An approval that cannot get the lock within the timeout fails with a booking conflict.
+ * Items mapped to different stripes never wait for each other.
+ */
+@Slf4j
+@Component
+public class ItemLocks {
+    private static final String POSTGRESQL = "PostgreSQL";
+
+    private final Lock[] stripes;
+    private final long timeoutNanos;
+
+    public ItemLocks(DataSource dataSource,
+                     @Value("${shareit.booking.lock-stripes:1024}") int stripes,
+                     @Value("${shareit.booking.lock-timeout:2s}") Duration timeout) throws MetaDataAccessException {
+        String database = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        this.stripes = POSTGRESQL.equals(database) ? new Lock[0] : new Lock[stripes];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.timeoutNanos = timeout.toNanos();
+        log.info("Booking approvals on {} are serialized by {}", database,
+                this.stripes.length == 0 ? "the exclusion constraint" : "item locks");
+    }
+
+    public boolean isEnabled() {
+        return stripes.length > 0;
+    }
+
+    public <T> T withLock(long itemId, Supplier<T> approval) {
+        if (!isEnabled()) {
+            return approval.get();
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("item lock must be taken outside of a transaction");
+        }
+        Lock lock = stripes[Math.floorMod(Long.hashCode(itemId), stripes.length)];
+        if (!tryLock(lock)) {
+            log.info("item " + itemId + " is being approved by another request");
+            throw new BookingConflictException("item " + itemId + " is being approved by another request, retry it");
+        }
+        try {
+            return approval.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean tryLock(Lock lock) {
+        try {
+            return lock.tryLock(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.cache.jcache.JCacheCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Bounded Caffeine caches behind one JCache manager: the Hibernate second-level cache regions
+ * for users, items and item requests, the item view caches of ItemViewCache and the booking calendars
+ * of ItemCalendar.
+ * The manager is exposed as a Spring cache manager, so actuator publishes hit, miss, put
+ * and eviction metrics for every cache.
+ */
+@Configuration
+public class CacheConfig {
+    public static final String USERS = "users";
+    public static final String ITEMS = "items";
+    public static final String REQUESTS = "requests";
+    public static final String ITEM_VIEWS = "item-views";
+    public static final String ITEM_BOOKINGS = "item-bookings";
+    public static final String ITEM_CALENDARS = "item-calendars";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager(@Value("${shareit.cache.max-size:10000}") long maxSize,
+                                           @Value("${shareit.cache.ttl:10m}") Duration ttl) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+        for (String name : List.of(USERS, ITEMS, REQUESTS, ITEM_VIEWS, ITEM_BOOKINGS, ITEM_CALENDARS)) {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+            configuration.setStoreByValue(false);
+            configuration.setStatisticsEnabled(true);
+            cacheManager.createCache(name, configuration);
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheCustomizer(CacheManager entityCacheManager) {
+        return properties -> {
+            properties.put("hibernate.cache.use_second_level_cache", true);
+            properties.put("hibernate.cache.region.factory_class", "jcache");
+            properties.put("hibernate.javax.cache.cache_manager", entityCacheManager);
+            properties.put("hibernate.javax.cache.missing_cache_strategy", "fail");
+        };
+    }
+
+    @Bean
+    public JCacheCacheManager cacheManager(CacheManager entityCacheManager) {
+        return new JCacheCacheManager(entityCacheManager);
+    }
+}
@@ -2,11 +2,15 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 
 @RestController
@@ -35,20 +39,39 @@ public class ItemController {
         return itemService.getItemById(itemId, userId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getAvailability(@PathVariable("itemId") long itemId,
+                                               @RequestHeader("X-Sharer-User-Id") Long userId,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                               LocalDateTime from,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                               LocalDateTime to) {
+        log.info("Received GET request: get availability of item {} from {} to {}", itemId, from, to);
+        return itemService.getAvailability(itemId, userId, from, to);
+    }
+
     @GetMapping
     public Collection<ItemDto> getAllItemByUser(@RequestHeader("X-Sharer-User-Id") Long ownerId,
                                                 @RequestParam(defaultValue = "0") int from,
-                                                @RequestParam(defaultValue = "10") int size) {
+                                                @RequestParam(defaultValue = "10") int size,
+                                                WebRequest request) {
         log.info("Received GET request: get all item by owner {}", ownerId);
-        return itemService.getAllItemByUser(ownerId, from, size);
+        return itemService.getAllItemByUser(ownerId, from, size, request::checkNotModified);
     }
 
     @GetMapping("/search")
     public Collection<ItemDto> findItemsByText(@RequestParam("text") String text,
                                                @RequestParam(defaultValue = "0") int from,
-                                               @RequestParam(defaultValue = "10") int size) {
+                                               @RequestParam(defaultValue = "10") int size,
+                                               @RequestParam(required = false)
+                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                               @RequestParam(required = false)
+                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
         log.info("Received GET request: get all item by text {}", text);
-        return itemService.findItemsByText(text, from, size);
+        if (start == null && end == null) {
+            return itemService.findItemsByText(text, from, size);
+        }
+        return itemService.findFreeItemsByText(text, start, end, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
@@ -1,13 +1,19 @@
 package ru.practicum.shareit.item.mapper;
 
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.NullValuePropertyMappingStrategy;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.mapper.UserMapper;
 
-@Mapper(componentModel = "spring", nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+@Mapper(componentModel = "spring", nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE,
+        uses = UserMapper.class)
 public interface ItemMapper {
+    @Mapping(target = "version", ignore = true)
     Item dtoToItem(ItemDto itemDto);
 
     ItemDto itemToDto(Item item);
+
+    ItemDto copy(ItemDto itemDto);
 }
\ No newline at end of file
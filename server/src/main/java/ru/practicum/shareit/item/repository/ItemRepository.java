@@ -1,19 +1,46 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.Fingerprint;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
-    List<Item> findAllByNameContainingIgnoreCaseAndAvailable(String text, boolean available, Pageable page);
+    @Query(value = "select * " +
+            "from items as i " +
+            "where i.is_available = true and (i.name ilike ?1 or i.description ilike ?1) " +
+            "order by case when i.name ilike ?1 then 0 else 1 end, i.id", nativeQuery = true)
+    List<Item> search(String pattern, Pageable page);
 
-    List<Item> findAllByDescriptionContainingIgnoreCaseAndAvailable(String text, boolean available, Pageable page);
+    @Query(value = "select * " +
+            "from items as i " +
+            "where i.is_available = true and (i.name ilike ?1 or i.description ilike ?1) " +
+            "and not exists (select 1 from bookings as b " +
+            "where b.item_id = i.id and b.status = 'APPROVED' and b.start_date < ?3 and b.end_date > ?2) " +
+            "order by case when i.name ilike ?1 then 0 else 1 end, i.id", nativeQuery = true)
+    List<Item> searchFree(String pattern, LocalDateTime start, LocalDateTime end, Pageable page);
+
+    @Query("select i from Item as i where i.available = true and i.id > ?1 order by i.id")
+    List<Item> findAvailableAfter(long id, Pageable page);
 
     List<Item> findAllByOwnerIdOrderByIdAsc(Long ownerId, Pageable page);
 
     List<Item> findAllByRequestIdOrderById(long requestId);
-}
\ No newline at end of file
+
+    @EntityGraph(attributePaths = "owner")
+    List<Item> findAllByRequestIdInOrderById(Collection<Long> requestIds);
+
+    @Query("select count(i) as rows, coalesce(sum(i.version + o.version), 0) as versions, " +
+            "coalesce(max(i.id), 0) as lastId, 0L as marks " +
+            "from Item as i join i.owner as o " +
+            "where i.request.id in ?1")
+    Fingerprint fingerprintByRequestIds(Collection<Long> requestIds);
+}
@@ -0,0 +1,109 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.Pages;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.event.UserChangedEvent;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Answers item searches from an in-memory {@link TrigramIndex} of available items. The index finds, ranks and
+ * pages the matches itself; only the items of the requested page are then loaded from the database.
+ * The index is built on startup and updated after every committed item change.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "index")
+public class InMemoryItemSearch implements ItemSearch {
+    private final ItemRepository itemRepository;
+    private volatile TrigramIndex index;
+
+    @Value("${shareit.search.index.batch-size:1000}")
+    private int batchSize;
+
+    @PostConstruct
+    public void buildIndex() {
+        index = loadIndex();
+        log.info("Item search index built: {} available items", index.size());
+    }
+
+    @Override
+    public List<Item> search(String text, int from, int size) {
+        long[] ids = index.search(text, Pages.getPage(from, size).getOffset(), size);
+        Map<Long, Item> items = itemRepository.findAllById(Arrays.stream(ids).boxed().collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return Arrays.stream(ids)
+                .mapToObj(items::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * The index knows nothing about bookings, so window searches run the anti-join query in the database.
+     */
+    @Override
+    public List<Item> searchFree(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
+        return itemRepository.searchFree(DbItemSearch.toContainsPattern(text), start, end, Pages.getPage(from, size));
+    }
+
+    @TransactionalEventListener
+    public synchronized void onItemChanged(ItemChangedEvent event) {
+        Optional<Item> item = itemRepository.findById(event.getItemId());
+        if (item.isPresent() && Boolean.TRUE.equals(item.get().getAvailable())) {
+            index.put(item.get().getId(), item.get().getName(), item.get().getDescription());
+        } else {
+            index.remove(event.getItemId());
+        }
+        rebuildIfStale();
+    }
+
+    @TransactionalEventListener
+    public synchronized void onUserChanged(UserChangedEvent event) {
+        event.getDeletedItemIds().forEach(index::remove);
+        rebuildIfStale();
+    }
+
+    /**
+     * Rebuilding while holding the monitor of the change listeners keeps every change committed during
+     * the rebuild waiting, so it is applied to the new index rather than lost with the old one.
+     */
+    private void rebuildIfStale() {
+        if (index.stale() > Math.max(index.size(), batchSize)) {
+            index = loadIndex();
+            log.info("Item search index rebuilt: {} available items", index.size());
+        }
+    }
+
+    private TrigramIndex loadIndex() {
+        TrigramIndex loaded = new TrigramIndex();
+        long lastId = 0;
+        List<Item> batch;
+        do {
+            batch = itemRepository.findAvailableAfter(lastId, PageRequest.of(0, batchSize));
+            for (Item item : batch) {
+                loaded.put(item.getId(), item.getName(), item.getDescription());
+                lastId = item.getId();
+            }
+        } while (batch.size() == batchSize);
+        return loaded;
+    }
+}
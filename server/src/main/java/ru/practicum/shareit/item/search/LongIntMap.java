@@ -0,0 +1,81 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map from long keys to non-negative int values, with neither of them boxed.
+ * Keys are never removed: the index that owns the map is rebuilt instead.
+ */
+class LongIntMap {
+    static final int MISSING = -1;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private int[] values = newValues(INITIAL_CAPACITY);
+    private int size;
+
+    int get(long key) {
+        int mask = keys.length - 1;
+        for (int i = slot(key, mask); values[i] != MISSING; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return values[i];
+            }
+        }
+        return MISSING;
+    }
+
+    void put(long key, int value) {
+        if ((size + 1) * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+        if (insert(keys, values, key, value)) {
+            size++;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[capacity];
+        values = newValues(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != MISSING) {
+                insert(keys, values, oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    /**
+     * Puts the value into the given tables and tells whether the key was new.
+     */
+    private static boolean insert(long[] keys, int[] values, long key, int value) {
+        int mask = keys.length - 1;
+        int i = slot(key, mask);
+        while (values[i] != MISSING) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        return true;
+    }
+
+    private static int slot(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & mask;
+    }
+
+    private static int[] newValues(int capacity) {
+        int[] values = new int[capacity];
+        Arrays.fill(values, MISSING);
+        return values;
+    }
+}
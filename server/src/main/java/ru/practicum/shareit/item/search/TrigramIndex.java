@@ -0,0 +1,245 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory search over the names and descriptions of available items. The lower-cased text of every item
+ * is kept in char arrays, and an inverted index maps character trigrams to the ids of the items containing them.
+ * Intersecting the posting lists of the query trigrams gives candidates, which are checked against the kept text,
+ * so matching, ranking and paging never leave memory. Name trigrams are also indexed separately, so name matches
+ * can be ranked first. Queries shorter than a trigram have no posting lists and scan the text of every item.
+ * <p>
+ * The text an item had before an update is not known to the posting lists, so its old trigrams keep pointing
+ * at it. Such stale entries only add candidates that fail the check; {@link #stale()} counts them so the owner
+ * can rebuild.
+ */
+class TrigramIndex {
+    static final int GRAM = 3;
+
+    /**
+     * Trigrams take the low 48 bits, so this bit separates the keys of name trigrams from text trigrams.
+     */
+    private static final long NAME = 1L << 48;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final LongIntMap gramPositions = new LongIntMap();
+    private LongPostings[] postings = new LongPostings[INITIAL_CAPACITY];
+    private final LongIntMap slots = new LongIntMap();
+    private char[][] names = new char[INITIAL_CAPACITY][];
+    private char[][] descriptions = new char[INITIAL_CAPACITY][];
+    private final LongPostings live = new LongPostings();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private int stale;
+
+    void put(long id, String name, String description) {
+        char[] normalizedName = normalize(name).toCharArray();
+        char[] normalizedDescription = normalize(description).toCharArray();
+        long[] nameGrams = grams(normalizedName);
+        long[] textGrams = grams(normalizedName, normalizedDescription);
+        lock.writeLock().lock();
+        try {
+            if (live.contains(id)) {
+                stale++;
+            }
+            live.add(id);
+            int slot = slotOf(id);
+            names[slot] = normalizedName;
+            descriptions[slot] = normalizedDescription;
+            for (long gram : nameGrams) {
+                postingsOf(gram | NAME).add(id);
+            }
+            for (long gram : textGrams) {
+                postingsOf(gram).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            if (live.contains(id)) {
+                live.remove(id);
+                stale++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return live.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of updates and removals whose old trigrams are still in the posting lists.
+     */
+    int stale() {
+        lock.readLock().lock();
+        try {
+            return stale;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the page of indexed items whose name or description contains {@code text}, skipping the first
+     * {@code offset} matches. Items matching by name come first, and each group is in ascending id order.
+     */
+    long[] search(String text, long offset, int size) {
+        char[] query = normalize(text).toCharArray();
+        long[] queryGrams = grams(query);
+        Matches matches = new Matches(offset, size);
+        lock.readLock().lock();
+        try {
+            long[] all = query.length < GRAM ? live.toArray() : null;
+            long[] byName = all != null ? all : candidates(queryGrams, NAME);
+            for (int i = 0; i < byName.length && !matches.isFull(); i++) {
+                if (contains(names[slots.get(byName[i])], query)) {
+                    matches.add(byName[i]);
+                }
+            }
+            if (matches.isFull()) {
+                return matches.toArray();
+            }
+            long[] byText = all != null ? all : candidates(queryGrams, 0);
+            for (int i = 0; i < byText.length && !matches.isFull(); i++) {
+                int slot = slots.get(byText[i]);
+                if (!contains(names[slot], query) && contains(descriptions[slot], query)) {
+                    matches.add(byText[i]);
+                }
+            }
+            return matches.toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ascending ids of live items whose posting lists hold every one of the given trigrams in the given field.
+     */
+    private long[] candidates(long[] grams, long field) {
+        LongPostings[] lists = new LongPostings[grams.length + 1];
+        for (int i = 0; i < grams.length; i++) {
+            int position = gramPositions.get(grams[i] | field);
+            if (position == LongIntMap.MISSING) {
+                return new long[0];
+            }
+            lists[i] = postings[position];
+        }
+        lists[grams.length] = live;
+        Arrays.sort(lists, Comparator.comparingInt(LongPostings::size));
+        long[] candidates = lists[0].toArray();
+        int count = candidates.length;
+        for (int i = 1; i < lists.length && count > 0; i++) {
+            count = lists[i].retainAll(candidates, count);
+        }
+        return Arrays.copyOf(candidates, count);
+    }
+
+    private int slotOf(long id) {
+        int slot = slots.get(id);
+        if (slot == LongIntMap.MISSING) {
+            slot = slots.size();
+            if (slot == names.length) {
+                names = Arrays.copyOf(names, slot * 2);
+                descriptions = Arrays.copyOf(descriptions, slot * 2);
+            }
+            slots.put(id, slot);
+        }
+        return slot;
+    }
+
+    private LongPostings postingsOf(long gram) {
+        int position = gramPositions.get(gram);
+        if (position == LongIntMap.MISSING) {
+            position = gramPositions.size();
+            if (position == postings.length) {
+                postings = Arrays.copyOf(postings, position * 2);
+            }
+            postings[position] = new LongPostings();
+            gramPositions.put(gram, position);
+        }
+        return postings[position];
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean contains(char[] text, char[] query) {
+        for (int start = 0; start + query.length <= text.length; start++) {
+            int i = 0;
+            while (i < query.length && text[start + i] == query[i]) {
+                i++;
+            }
+            if (i == query.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long[] grams(char[]... texts) {
+        int capacity = 0;
+        for (char[] text : texts) {
+            capacity += Math.max(text.length - GRAM + 1, 0);
+        }
+        long[] grams = new long[capacity];
+        int count = 0;
+        for (char[] text : texts) {
+            for (int i = 0; i + GRAM <= text.length; i++) {
+                grams[count++] = ((long) text[i] << 32) | ((long) text[i + 1] << 16) | text[i + 2];
+            }
+        }
+        Arrays.sort(grams);
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (unique == 0 || grams[unique - 1] != grams[i]) {
+                grams[unique++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, unique);
+    }
+
+    /**
+     * The page of matches being filled: the first {@code skip} matches belong to earlier pages.
+     */
+    private static final class Matches {
+        private final long[] page;
+        private int count;
+        private long skip;
+
+        private Matches(long skip, int size) {
+            this.skip = skip;
+            this.page = new long[size];
+        }
+
+        private void add(long id) {
+            if (skip > 0) {
+                skip--;
+            } else if (!isFull()) {
+                page[count++] = id;
+            }
+        }
+
+        private boolean isFull() {
+            return count == page.length;
+        }
+
+        private long[] toArray() {
+            return Arrays.copyOf(page, count);
+        }
+    }
+}
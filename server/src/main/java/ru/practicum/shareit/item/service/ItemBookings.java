@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.Value;
+import ru.practicum.shareit.booking.dto.BookingDtoForItem;
+
+import java.time.LocalDateTime;
+
+/**
+ * Owner-only booking section of an item page. It stays correct until the next booking starts,
+ * when that booking becomes the last one.
+ */
+@Value
+public class ItemBookings {
+    BookingDtoForItem lastBooking;
+    BookingDtoForItem nextBooking;
+    LocalDateTime validUntil;
+}
@@ -1,10 +1,14 @@
 package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
 
 public interface ItemService {
     ItemDto addItem(ItemDto itemDto, Long ownerId);
@@ -13,11 +17,29 @@ public interface ItemService {
 
     ItemDto getItemById(Long itemId, Long userId);
 
+    ItemAvailabilityDto getAvailability(Long itemId, Long userId, LocalDateTime from, LocalDateTime to);
+
     Collection<ItemDto> getAllItemByUser(Long ownerId, int from, int size);
 
+    /**
+     * Page of items by owner. The page is loaded once and its bookings are added only if {@code notModified}
+     * rejects its entity tag, otherwise the result is null.
+     */
+    Collection<ItemDto> getAllItemByUser(Long ownerId, int from, int size, Predicate<String> notModified);
+
     Collection<ItemDto> findItemsByText(String text, int from, int size);
 
+    Collection<ItemDto> findFreeItemsByText(String text, LocalDateTime start, LocalDateTime end, int from, int size);
+
     CommentDto createComment(CommentDto commentDto, Long userId, Long itemId);
 
     List<ItemDto> getItemsByRequest(long requestId);
+
+    Map<Long, List<ItemDto>> getItemsByRequests(Collection<Long> requestIds);
+
+    /**
+     * Entity tag of {@link #getItemsByRequests}, with the booking section of every item. It is computed from
+     * aggregates without loading the items.
+     */
+    String getItemsByRequestsTag(Collection<Long> requestIds);
 }
@@ -2,24 +2,32 @@ package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Pageable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.ETags;
+import ru.practicum.shareit.Fingerprint;
 import ru.practicum.shareit.booking.Status;
 import ru.practicum.shareit.booking.dto.BookingDtoForItem;
+import ru.practicum.shareit.booking.dto.BookingShort;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
-import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.ItemCalendar;
 import ru.practicum.shareit.exception.InvalidRequestException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.IntervalDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearch;
 import ru.practicum.shareit.Pages;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
@@ -30,6 +38,8 @@ import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -42,6 +52,10 @@ public class ItemServiceImpl implements ItemService {
     private final CommentRepository commentRepository;
     private final UserService userService;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearch itemSearch;
+    private final ItemCalendar itemCalendar;
+    private final ItemViewCache itemViewCache;
+    private final ApplicationEventPublisher eventPublisher;
     private final UserMapper userMapper;
     private final ItemMapper itemMapper;
     private final BookingMapper bookingMapper;
@@ -62,6 +76,7 @@ public class ItemServiceImpl implements ItemService {
             item.setRequest(itemRequest.get());
         }
         Item itemSaved = itemRepository.save(item);
+        eventPublisher.publishEvent(new ItemChangedEvent(itemSaved.getId()));
         ItemDto itemDtoSaved = itemMapper.itemToDto(itemSaved);
         if (itemSaved.getRequest() != null) {
             itemDtoSaved.setRequestId(itemSaved.getRequest().getId());
@@ -87,6 +102,7 @@ public class ItemServiceImpl implements ItemService {
                 item.setAvailable(availableNew);
             }
             Item itemSaved = itemRepository.save(item);
+            eventPublisher.publishEvent(new ItemChangedEvent(itemId));
             ItemDto itemDtoNew = itemMapper.itemToDto(itemSaved);
             addLastBookingAndNextBooking(itemDtoNew);
             return itemDtoNew;
@@ -98,66 +114,86 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     public ItemDto getItemById(Long itemId, Long userId) {
-        Item item = itemRepository.findById(itemId).orElseThrow(() -> new NotFoundException("item not found"));
-        List<Comment> comments = commentRepository.findAllCommentByItemIdOrderByIdAsc(itemId);
-        ItemDto itemDto = itemMapper.itemToDto(item);
-        List<CommentDto> commentsDto = new ArrayList<>();
-        if (!comments.isEmpty()) {
-            for (Comment comment : comments) {
-                CommentDto commentDto = commentMapper.commentToDto(comment);
-                commentDto.setAuthorName(comment.getAuthor().getName());
-                commentsDto.add(commentDto);
-            }
+        ItemDto itemDto = itemViewCache.getView(itemId);
+        if (itemDto == null) {
+            long generation = itemViewCache.generation(itemId);
+            itemDto = loadView(itemId);
+            itemViewCache.putView(itemId, itemDto, generation);
         }
-        itemDto.setComments(commentsDto);
         if (Objects.equals(userId, itemDto.getOwner().getId())) {
-            addLastBookingAndNextBooking(itemDto);
+            addOwnerBookings(itemDto);
         }
         return itemDto;
     }
 
     @Override
-    public Collection<ItemDto> getAllItemByUser(Long ownerId, int from, int size) {
-        Pageable page = Pages.getPage(from, size);
+    public ItemAvailabilityDto getAvailability(Long itemId, Long userId, LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            log.info("availability window error");
+            throw new ValidationException("availability window error");
+        }
+        UserDto user = userService.getUserById(userId);
+        if (!itemRepository.existsById(itemId)) {
+            log.info("item " + itemId + " not found");
+            throw new NotFoundException("item " + itemId + " not found");
+        }
+        List<IntervalDto> busy = itemCalendar.getBusy(itemId, from, to);
+        List<IntervalDto> free = new ArrayList<>();
+        LocalDateTime freeFrom = from;
+        for (IntervalDto interval : busy) {
+            if (freeFrom.isBefore(interval.getStart())) {
+                free.add(new IntervalDto(freeFrom, interval.getStart()));
+            }
+            freeFrom = interval.getEnd();
+        }
+        if (freeFrom.isBefore(to)) {
+            free.add(new IntervalDto(freeFrom, to));
+        }
+        return new ItemAvailabilityDto(itemId, from, to, busy, free);
+    }
 
-        UserDto owner = userService.getUserById(ownerId);
-        List<Item> itemsList = itemRepository.findAllByOwnerIdOrderByIdAsc(ownerId, page);
+    @Override
+    public Collection<ItemDto> getAllItemByUser(Long ownerId, int from, int size) {
+        return toDtoWithBookings(findItemsByOwner(ownerId, from, size));
+    }
 
-        List<ItemDto> itemDtoList = new ArrayList<>();
-        for (Item item : itemsList) {
-            ItemDto itemDto = itemMapper.itemToDto(item);
-            addLastBookingAndNextBooking(itemDto);
-            itemDtoList.add(itemDto);
+    @Override
+    public Collection<ItemDto> getAllItemByUser(Long ownerId, int from, int size, Predicate<String> notModified) {
+        List<Item> items = findItemsByOwner(ownerId, from, size);
+        if (notModified.test(ETags.of(from, size, versions(items), approvedBookingsFingerprint(items)))) {
+            return null;
         }
-        return itemDtoList;
+        return toDtoWithBookings(items);
     }
 
     @Override
     public Collection<ItemDto> findItemsByText(String text, int from, int size) {
-        Pageable page = Pages.getPage(from, size);
-
         Collection<ItemDto> itemsByText = new ArrayList<>();
         if (text.isEmpty()) {
             return itemsByText;
         }
-        List<Item> allItemsByName = itemRepository.findAllByNameContainingIgnoreCaseAndAvailable(text, true, page);
-        List<Item> allItemsByDescription = itemRepository.findAllByDescriptionContainingIgnoreCaseAndAvailable(
-                text, true, page);
-        if (allItemsByName != null) {
-            for (Item item : allItemsByName) {
-                itemsByText.add(itemMapper.itemToDto(item));
-            }
+        for (Item item : itemSearch.search(text, from, size)) {
+            itemsByText.add(itemMapper.itemToDto(item));
         }
-        if (allItemsByDescription != null) {
-            for (Item item : allItemsByDescription) {
-                if (!allItemsByName.contains(item)) {
-                    itemsByText.add(itemMapper.itemToDto(item));
-                }
-            }
+        addLastBookingAndNextBooking(itemsByText);
+        return itemsByText;
+    }
+
+    @Override
+    public Collection<ItemDto> findFreeItemsByText(String text, LocalDateTime start, LocalDateTime end, int from,
+                                                   int size) {
+        if (start == null || end == null || !start.isBefore(end)) {
+            log.info("search window error");
+            throw new ValidationException("search window error");
         }
-        for (ItemDto itemDto : itemsByText) {
-            addLastBookingAndNextBooking(itemDto);
+        Collection<ItemDto> itemsByText = new ArrayList<>();
+        if (text.isEmpty()) {
+            return itemsByText;
         }
+        for (Item item : itemSearch.searchFree(text, start, end, from, size)) {
+            itemsByText.add(itemMapper.itemToDto(item));
+        }
+        addLastBookingAndNextBooking(itemsByText);
         return itemsByText;
     }
 
@@ -166,14 +202,8 @@ public class ItemServiceImpl implements ItemService {
     public CommentDto createComment(CommentDto commentDto, Long userId, Long itemId) {
         UserDto userDto = userService.getUserById(userId);
         User user = userMapper.dtoToUser(userDto);
-        ItemDto item = getItemById(itemId, userId);
-        addLastBookingAndNextBooking(item);
-        LocalDateTime created = LocalDateTime.now();
-        Collection<Booking> bookingsByUser = bookingRepository.findAllBookingByBookerIdAndEndBeforeOrderByStartDesc(
-                userId, created);
-        List<Booking> bookingsByUserByItem = bookingsByUser.stream().filter(booking -> Objects.equals(booking.getItem()
-                .getId(), itemId)).collect(Collectors.toList());
-        if (bookingsByUserByItem.isEmpty()) {
+        Item item = itemRepository.findById(itemId).orElseThrow(() -> new NotFoundException("item not found"));
+        if (!bookingRepository.existsByBookerIdAndItemIdAndEndBefore(userId, itemId, LocalDateTime.now())) {
             log.info("item not found");
             throw new InvalidRequestException("item not found");
         }
@@ -183,12 +213,13 @@ public class ItemServiceImpl implements ItemService {
             log.info("comment is empty");
             throw new InvalidRequestException("comment is empty");
         }
-        commentDto.setItem(item);
         commentDto.setText(text);
         commentDto.setCreated(LocalDateTime.now());
         Comment comment = commentMapper.dtoToComment(commentDto);
+        comment.setItem(item);
         comment.setAuthor(user);
         Comment commentSaved = commentRepository.save(comment);
+        eventPublisher.publishEvent(new ItemChangedEvent(itemId));
         CommentDto commentDtoSaved = commentMapper.commentToDto(commentSaved);
         commentDtoSaved.setAuthorName(commentSaved.getAuthor().getName());
         return commentDtoSaved;
@@ -202,32 +233,136 @@ public class ItemServiceImpl implements ItemService {
             for (Item item : itemsList) {
                 ItemDto itemToRequestDto = itemMapper.itemToDto(item);
                 itemToRequestDto.setRequestId(item.getRequest().getId());
-                addLastBookingAndNextBooking(itemToRequestDto);
                 itemsByRequest.add(itemToRequestDto);
             }
         }
+        addLastBookingAndNextBooking(itemsByRequest);
         return itemsByRequest;
     }
 
-    private ItemDto addLastBookingAndNextBooking(ItemDto itemDto) {
+    @Override
+    public Map<Long, List<ItemDto>> getItemsByRequests(Collection<Long> requestIds) {
+        if (requestIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<ItemDto> items = new ArrayList<>();
+        for (Item item : itemRepository.findAllByRequestIdInOrderById(requestIds)) {
+            ItemDto itemToRequestDto = itemMapper.itemToDto(item);
+            itemToRequestDto.setRequestId(item.getRequest().getId());
+            items.add(itemToRequestDto);
+        }
+        addLastBookingAndNextBooking(items);
+        return items.stream().collect(Collectors.groupingBy(ItemDto::getRequestId));
+    }
+
+    @Override
+    public String getItemsByRequestsTag(Collection<Long> requestIds) {
+        if (requestIds.isEmpty()) {
+            return ETags.of();
+        }
+        return ETags.of(itemRepository.fingerprintByRequestIds(requestIds),
+                bookingRepository.fingerprintByRequestIdsAndStatus(requestIds, Status.APPROVED, LocalDateTime.now()));
+    }
+
+    private List<Item> findItemsByOwner(Long ownerId, int from, int size) {
+        UserDto owner = userService.getUserById(ownerId);
+        return itemRepository.findAllByOwnerIdOrderByIdAsc(ownerId, Pages.getPage(from, size));
+    }
+
+    private List<ItemDto> toDtoWithBookings(List<Item> items) {
+        List<ItemDto> itemDtoList = new ArrayList<>();
+        for (Item item : items) {
+            itemDtoList.add(itemMapper.itemToDto(item));
+        }
+        addLastBookingAndNextBooking(itemDtoList);
+        return itemDtoList;
+    }
+
+    /**
+     * Versions of the items on a page and of their owners.
+     */
+    private static List<String> versions(List<Item> items) {
+        return items.stream()
+                .map(item -> item.getId() + ":" + item.getVersion() + ":" + item.getOwner().getVersion())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Approved bookings of the given items only: they decide the last and next booking shown with each item.
+     */
+    private Fingerprint approvedBookingsFingerprint(List<Item> items) {
+        if (items.isEmpty()) {
+            return null;
+        }
+        List<Long> itemIds = items.stream().map(Item::getId).collect(Collectors.toList());
+        return bookingRepository.fingerprintByItemIdsAndStatus(itemIds, Status.APPROVED, LocalDateTime.now());
+    }
+
+    private ItemDto loadView(Long itemId) {
+        Item item = itemRepository.findById(itemId).orElseThrow(() -> new NotFoundException("item not found"));
+        List<Comment> comments = commentRepository.findAllCommentByItemIdOrderByIdAsc(itemId);
+        ItemDto itemDto = itemMapper.itemToDto(item);
+        List<CommentDto> commentsDto = new ArrayList<>();
+        for (Comment comment : comments) {
+            CommentDto commentDto = commentMapper.commentToDto(comment);
+            commentDto.setAuthorName(comment.getAuthor().getName());
+            commentsDto.add(commentDto);
+        }
+        itemDto.setComments(commentsDto);
+        return itemDto;
+    }
+
+    private void addOwnerBookings(ItemDto itemDto) {
         Long itemId = itemDto.getId();
-        List<Booking> lastBookingsByItem = bookingRepository.findBookingByItemIdAndStartIsBeforeAndStatusOrderByStartAsc(
-                itemId, LocalDateTime.now(), Status.APPROVED);
-        if (!lastBookingsByItem.isEmpty()) {
-            Booking lastBooking = lastBookingsByItem.get(lastBookingsByItem.size() - 1);
-
-            BookingDtoForItem lastBookingDto = bookingMapper.bookingToDtoForItem(lastBooking);
-            lastBookingDto.setBookerId(lastBooking.getBooker().getId());
-            itemDto.setLastBooking(lastBookingDto);
-        }
-        List<Booking> nextBookingsByItem = bookingRepository.findBookingByItemIdAndStartIsAfterAndStatusOrderByStartAsc(
-                itemId, LocalDateTime.now(), Status.APPROVED);
-        if (nextBookingsByItem.size() > 0) {
-            Booking nextBooking = nextBookingsByItem.get(0);
-            BookingDtoForItem nextBookingDto = bookingMapper.bookingToDtoForItem(nextBooking);
-            nextBookingDto.setBookerId(nextBooking.getBooker().getId());
-            itemDto.setNextBooking(nextBookingDto);
+        LocalDateTime now = LocalDateTime.now();
+        ItemBookings itemBookings = itemViewCache.getBookings(itemId, now);
+        if (itemBookings == null) {
+            long generation = itemViewCache.generation(itemId);
+            addLastBookingAndNextBooking(itemDto);
+            BookingDtoForItem nextBooking = itemDto.getNextBooking();
+            LocalDateTime validUntil = nextBooking == null ? LocalDateTime.MAX : nextBooking.getStart();
+            itemBookings = new ItemBookings(itemDto.getLastBooking(), nextBooking, validUntil);
+            itemViewCache.putBookings(itemId, itemBookings, generation);
+        } else {
+            itemDto.setLastBooking(itemBookings.getLastBooking());
+            itemDto.setNextBooking(itemBookings.getNextBooking());
         }
+    }
+
+    private ItemDto addLastBookingAndNextBooking(ItemDto itemDto) {
+        Long itemId = itemDto.getId();
+        LocalDateTime now = LocalDateTime.now();
+        bookingRepository.findLastBookingByItemId(itemId, now, Status.APPROVED, Pages.first()).stream()
+                .findFirst()
+                .ifPresent(lastBooking -> itemDto.setLastBooking(bookingMapper.shortToDtoForItem(lastBooking)));
+        bookingRepository.findNextBookingByItemId(itemId, now, Status.APPROVED, Pages.first()).stream()
+                .findFirst()
+                .ifPresent(nextBooking -> itemDto.setNextBooking(bookingMapper.shortToDtoForItem(nextBooking)));
         return itemDto;
     }
+
+    private void addLastBookingAndNextBooking(Collection<ItemDto> itemsDto) {
+        if (itemsDto.isEmpty()) {
+            return;
+        }
+        List<Long> itemIds = itemsDto.stream().map(ItemDto::getId).collect(Collectors.toList());
+        LocalDateTime now = LocalDateTime.now();
+        String approved = String.valueOf(Status.APPROVED);
+        Map<Long, BookingShort> lastBookings = bookingRepository.findLastBookingsByItemIds(itemIds, now, approved)
+                .stream()
+                .collect(Collectors.toMap(BookingShort::getItemId, Function.identity()));
+        Map<Long, BookingShort> nextBookings = bookingRepository.findNextBookingsByItemIds(itemIds, now, approved)
+                .stream()
+                .collect(Collectors.toMap(BookingShort::getItemId, Function.identity()));
+        for (ItemDto itemDto : itemsDto) {
+            BookingShort lastBooking = lastBookings.get(itemDto.getId());
+            if (lastBooking != null) {
+                itemDto.setLastBooking(bookingMapper.shortToDtoForItem(lastBooking));
+            }
+            BookingShort nextBooking = nextBookings.get(itemDto.getId());
+            if (nextBooking != null) {
+                itemDto.setNextBooking(bookingMapper.shortToDtoForItem(nextBooking));
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,129 @@
+package ru.practicum.shareit.item.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.config.CacheConfig;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.user.event.UserChangedEvent;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Materialized item pages: the view every user sees, and separately the booking section shown to the owner.
+ * Entries are dropped after the transaction that changed the item, its comments or its bookings commits.
+ * Every invalidation bumps a striped generation, and a page loaded before an invalidation of its item
+ * is not stored, so a slow reader cannot put back data that was already replaced.
+ */
+@Component
+public class ItemViewCache {
+    private static final int STRIPES = 1024;
+
+    private final Cache<Object, Object> views;
+    private final Cache<Object, Object> bookings;
+    private final ItemMapper itemMapper;
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+    private final Lock[] locks = new Lock[STRIPES];
+
+    public ItemViewCache(CacheManager entityCacheManager, ItemMapper itemMapper) {
+        this.views = entityCacheManager.getCache(CacheConfig.ITEM_VIEWS);
+        this.bookings = entityCacheManager.getCache(CacheConfig.ITEM_BOOKINGS);
+        this.itemMapper = itemMapper;
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Returns the generation to pass to {@link #putView} or {@link #putBookings}; read it before loading.
+     */
+    public long generation(Long itemId) {
+        return generations.get(stripe(itemId));
+    }
+
+    public ItemDto getView(Long itemId) {
+        ItemDto view = (ItemDto) views.get(itemId);
+        return view == null ? null : itemMapper.copy(view);
+    }
+
+    public void putView(Long itemId, ItemDto view, long generation) {
+        put(views, itemId, itemMapper.copy(view), generation);
+    }
+
+    public ItemBookings getBookings(Long itemId, LocalDateTime now) {
+        ItemBookings itemBookings = (ItemBookings) bookings.get(itemId);
+        if (itemBookings == null || !now.isBefore(itemBookings.getValidUntil())) {
+            return null;
+        }
+        return itemBookings;
+    }
+
+    public void putBookings(Long itemId, ItemBookings itemBookings, long generation) {
+        put(bookings, itemId, itemBookings, generation);
+    }
+
+    @TransactionalEventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        invalidate(event.getItemId(), views, bookings);
+    }
+
+    @TransactionalEventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        invalidate(event.getItemId(), bookings);
+    }
+
+    /**
+     * Item pages embed owner and comment author names, and a deleted user takes items and comments along.
+     * User changes are rare, so every page is dropped.
+     */
+    @TransactionalEventListener
+    public void onUserChanged(UserChangedEvent event) {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i].lock();
+            try {
+                generations.incrementAndGet(i);
+            } finally {
+                locks[i].unlock();
+            }
+        }
+        views.removeAll();
+        bookings.removeAll();
+    }
+
+    private void put(Cache<Object, Object> cache, Long itemId, Object value, long generation) {
+        int stripe = stripe(itemId);
+        locks[stripe].lock();
+        try {
+            if (generations.get(stripe) == generation) {
+                cache.put(itemId, value);
+            }
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+
+    @SafeVarargs
+    private void invalidate(Long itemId, Cache<Object, Object>... caches) {
+        int stripe = stripe(itemId);
+        locks[stripe].lock();
+        try {
+            generations.incrementAndGet(stripe);
+            for (Cache<Object, Object> cache : caches) {
+                cache.remove(itemId);
+            }
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+
+    private static int stripe(Long itemId) {
+        return Math.floorMod(Long.hashCode(itemId), STRIPES);
+    }
+}
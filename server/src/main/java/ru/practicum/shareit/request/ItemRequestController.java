@@ -3,6 +3,7 @@ package ru.practicum.shareit.request;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
@@ -38,8 +39,9 @@ public class ItemRequestController {
     @GetMapping("/all")
     public Collection<ItemRequestDto> findAllItemRequest(@RequestHeader("X-Sharer-User-Id") long userId,
                                                          @RequestParam(defaultValue = "0") int from,
-                                                         @RequestParam(defaultValue = "10") int size) {
+                                                         @RequestParam(defaultValue = "10") int size,
+                                                         WebRequest request) {
         log.info("Received GET request: get all itemRequest");
-        return itemRequestService.findAllItemRequest(userId, from, size);
+        return itemRequestService.findAllItemRequest(userId, from, size, request::checkNotModified);
     }
 }
@@ -1,12 +1,16 @@
 package ru.practicum.shareit.request.mapper;
 
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.NullValuePropertyMappingStrategy;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.mapper.UserMapper;
 
-@Mapper(componentModel = "spring", nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+@Mapper(componentModel = "spring", nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE,
+        uses = UserMapper.class)
 public interface ItemRequestMapper {
+    @Mapping(target = "version", ignore = true)
     ItemRequest dtoToItemRequest(ItemRequestDto itemRequestDto);
 
     ItemRequestDto itemRequestToDto(ItemRequest itemRequest);
@@ -1,6 +1,6 @@
 package ru.practicum.shareit.request.repository;
 
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -12,11 +12,13 @@ import java.util.List;
 @Repository
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
+    @Query("select r from ItemRequest as r join fetch r.requestor " +
+            "where r.requestor.id = ?1 " +
+            "order by r.created DESC")
     Collection<ItemRequest> findAllByRequestorIdOrderByCreatedDesc(long userId);
 
-    @Query(value = "select * " +
-            "from requests " +
-            "where requestor_id > ?1 Or requestor_id < ?1 " +
-            "order by created DESC", nativeQuery = true)
-    List<ItemRequest> findAll(long userId, PageRequest page);
+    @Query("select r from ItemRequest as r join fetch r.requestor as u " +
+            "where u.id <> ?1 " +
+            "order by r.created DESC")
+    List<ItemRequest> findAll(long userId, Pageable page);
 }
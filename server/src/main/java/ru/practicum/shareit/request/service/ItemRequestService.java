@@ -3,6 +3,7 @@ package ru.practicum.shareit.request.service;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.Collection;
+import java.util.function.Predicate;
 
 public interface ItemRequestService {
     ItemRequestDto createItemRequest(ItemRequestDto itemRequestDto, long userId);
@@ -12,4 +13,10 @@ public interface ItemRequestService {
     Collection<ItemRequestDto> findAllItemRequestByUser(long userId);
 
     Collection<ItemRequestDto> findAllItemRequest(long userId, int from, int size);
+
+    /**
+     * Page of requests of other users. The page is loaded once and its items are added only if
+     * {@code notModified} rejects its entity tag, otherwise the result is null.
+     */
+    Collection<ItemRequestDto> findAllItemRequest(long userId, int from, int size, Predicate<String> notModified);
 }
@@ -2,10 +2,9 @@ package ru.practicum.shareit.request.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.ETags;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -22,7 +21,9 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -71,29 +72,42 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Override
     public Collection<ItemRequestDto> findAllItemRequestByUser(long userId) {
         UserDto user = userService.getUserById(userId);
-        Collection<ItemRequest> itemRequestsByUser = itemRequestRepository.findAllByRequestorIdOrderByCreatedDesc(userId);
-        Collection<ItemRequestDto> itemRequestsByUserDto = new ArrayList<>();
-        for (ItemRequest itemRequest : itemRequestsByUser) {
-            ItemRequestDto itemRequestDto = itemRequestMapper.itemRequestToDto(itemRequest);
-            List<ItemDto> itemToRequestDto = itemService.getItemsByRequest(itemRequest.getId());
-            itemRequestDto.setItems(itemToRequestDto);
-            itemRequestsByUserDto.add(itemRequestDto);
-        }
-        return itemRequestsByUserDto;
+        List<ItemRequestDto> itemRequestsByUser = itemRequestRepository.findAllByRequestorIdOrderByCreatedDesc(userId)
+                .stream()
+                .map(itemRequestMapper::itemRequestToDto)
+                .collect(Collectors.toList());
+        return addItems(itemRequestsByUser);
     }
 
     @Override
     public Collection<ItemRequestDto> findAllItemRequest(long userId, int from, int size) {
-        Sort sortByCreated = Sort.by(Sort.Direction.DESC, "created");
-        PageRequest page = Pages.getPage(from, size, sortByCreated);
+        return addItems(toDto(itemRequestRepository.findAll(userId, Pages.getPage(from, size))));
+    }
 
-        List<ItemRequestDto> allItemRequests = itemRequestRepository.findAll(userId, page).stream()
-                .map(itemRequestMapper::itemRequestToDto)
+    @Override
+    public Collection<ItemRequestDto> findAllItemRequest(long userId, int from, int size,
+                                                         Predicate<String> notModified) {
+        List<ItemRequest> itemRequests = itemRequestRepository.findAll(userId, Pages.getPage(from, size));
+        List<String> versions = itemRequests.stream()
+                .map(request -> request.getId() + ":" + request.getVersion() + ":" + request.getRequestor().getVersion())
                 .collect(Collectors.toList());
-        for (ItemRequestDto itemRequestDto : allItemRequests) {
-            List<ItemDto> itemToRequestDto = itemService.getItemsByRequest(itemRequestDto.getId());
-            itemRequestDto.setItems(itemToRequestDto);
+        List<Long> requestIds = itemRequests.stream().map(ItemRequest::getId).collect(Collectors.toList());
+        if (notModified.test(ETags.of(from, size, versions, itemService.getItemsByRequestsTag(requestIds)))) {
+            return null;
+        }
+        return addItems(toDto(itemRequests));
+    }
+
+    private List<ItemRequestDto> toDto(List<ItemRequest> itemRequests) {
+        return itemRequests.stream().map(itemRequestMapper::itemRequestToDto).collect(Collectors.toList());
+    }
+
+    private List<ItemRequestDto> addItems(List<ItemRequestDto> itemRequests) {
+        List<Long> requestIds = itemRequests.stream().map(ItemRequestDto::getId).collect(Collectors.toList());
+        Map<Long, List<ItemDto>> itemsByRequest = itemService.getItemsByRequests(requestIds);
+        for (ItemRequestDto itemRequestDto : itemRequests) {
+            itemRequestDto.setItems(itemsByRequest.getOrDefault(itemRequestDto.getId(), new ArrayList<>()));
         }
-        return allItemRequests;
+        return itemRequests;
     }
 }
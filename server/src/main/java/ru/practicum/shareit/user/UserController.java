@@ -1,11 +1,20 @@
 package ru.practicum.shareit.user;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 
 @RestController
@@ -14,6 +23,7 @@ import java.util.Collection;
 @RequiredArgsConstructor
 public class UserController {
     private final UserService userService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     public UserDto createUser(@RequestBody UserDto userDto) {
@@ -40,7 +50,26 @@ public class UserController {
     }
 
     @GetMapping
-    public Collection<UserDto> findAll() {
-        return userService.getAllUsers();
+    public Collection<UserDto> findAll(@RequestParam(defaultValue = "0") long afterId,
+                                       @RequestParam(defaultValue = "10") int size) {
+        log.info("Received GET request: get users after id {}, size {}", afterId, size);
+        return userService.getUsers(afterId, size);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody exportUsers() {
+        log.info("Received GET request: export users");
+        return out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            userService.exportUsers(user -> {
+                try {
+                    writer.write(objectMapper.writeValueAsString(user));
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        };
     }
 }
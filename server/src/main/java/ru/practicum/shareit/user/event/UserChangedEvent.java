@@ -0,0 +1,14 @@
+package ru.practicum.shareit.user.event;
+
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+public class UserChangedEvent {
+    Long userId;
+    /**
+     * Items deleted together with the user; empty when the user was updated.
+     */
+    List<Long> deletedItemIds;
+}
@@ -1,9 +1,35 @@
 package ru.practicum.shareit.user.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.user.model.User;
 
+import javax.persistence.QueryHint;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_MODE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    boolean existsByEmailAndIdNot(String email, Long id);
+
+    List<User> findAllByIdGreaterThanOrderByIdAsc(Long afterId, Pageable page);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("select u from User as u order by u.id")
+    Stream<User> streamAll();
+
+    @Query("select i.id from Item as i left join i.request as r where i.owner.id = ?1 or r.requestor.id = ?1")
+    List<Long> findItemIdsDeletedWithUser(Long userId);
+
+    @Query("select r.id from ItemRequest as r where r.requestor.id = ?1")
+    List<Long> findRequestIdsDeletedWithUser(Long userId);
 }
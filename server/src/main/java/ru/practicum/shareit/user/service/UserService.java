@@ -3,6 +3,7 @@ package ru.practicum.shareit.user.service;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.Collection;
+import java.util.function.Consumer;
 
 public interface UserService {
     UserDto addUser(UserDto userDto);
@@ -13,5 +14,7 @@ public interface UserService {
 
     UserDto deleteUser(Long userId);
 
-    Collection<UserDto> getAllUsers();
+    Collection<UserDto> getUsers(long afterId, int size);
+
+    void exportUsers(Consumer<UserDto> consumer);
 }
@@ -2,45 +2,62 @@ package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import ru.practicum.shareit.exception.EmailAlreadyExistException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.event.UserChangedEvent;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
-import java.util.ArrayList;
+import javax.persistence.Cache;
+import javax.persistence.EntityManager;
 import java.util.Collection;
-import java.util.Objects;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class UserServiceImpl implements UserService {
+    private static final String EMAIL_CONSTRAINT = "UQ_USER_EMAIL";
+
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     @Override
     public UserDto addUser(UserDto userDto) {
         User user = userMapper.dtoToUser(userDto);
-        User userSaved = userRepository.save(user);
+        User userSaved = saveUser(user);
         return userMapper.userToDto(userSaved);
     }
 
     @Transactional
     @Override
     public UserDto updateUser(UserDto userDto, Long userId) {
-        checkUserId(userId);
+        User user = checkUserId(userId);
         String nameNew = userDto.getName();
         String emailNew = userDto.getEmail();
-        User user = userRepository.findById(userId).orElse(null);
         if (emailNew != null && !emailNew.isEmpty()) {
-            if (checkEmail(emailNew, userId)) {
+            if (userRepository.existsByEmailAndIdNot(emailNew, userId)) {
                 log.info("email " + emailNew + " already exist");
                 throw new EmailAlreadyExistException("email " + emailNew + " already exist");
             }
@@ -49,33 +66,63 @@ public class UserServiceImpl implements UserService {
         if (nameNew != null && !nameNew.isEmpty()) {
             user.setName(nameNew);
         }
-        User userSaved = userRepository.save(user);
+        User userSaved = saveUser(user);
+        eventPublisher.publishEvent(new UserChangedEvent(userId, List.of()));
         return userMapper.userToDto(userSaved);
     }
 
     @Override
     public UserDto getUserById(Long userId) {
-        checkUserId(userId);
-        User user = userRepository.findById(userId).orElse(null);
-        return userMapper.userToDto(user);
+        return userMapper.userToDto(checkUserId(userId));
     }
 
     @Transactional
     @Override
     public UserDto deleteUser(Long userId) {
         User user = checkUserId(userId);
+        List<Long> itemIds = evictDeletedWithUser(userId);
         userRepository.deleteById(userId);
+        eventPublisher.publishEvent(new UserChangedEvent(userId, itemIds));
         return userMapper.userToDto(user);
     }
 
     @Override
-    public Collection<UserDto> getAllUsers() {
-        Collection<User> users = userRepository.findAll();
-        Collection<UserDto> usersDto = new ArrayList<>();
-        for (User user : users) {
-            usersDto.add(userMapper.userToDto(user));
+    public Collection<UserDto> getUsers(long afterId, int size) {
+        if (afterId < 0 || size <= 0) {
+            log.info("users page error: afterId={}, size={}", afterId, size);
+            throw new ValidationException("users page error: afterId=" + afterId + ", size=" + size);
+        }
+        return userRepository.findAllByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, size)).stream()
+                .map(userMapper::userToDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void exportUsers(Consumer<UserDto> consumer) {
+        try (Stream<User> users = userRepository.streamAll()) {
+            users.forEach(user -> {
+                consumer.accept(userMapper.userToDto(user));
+                entityManager.detach(user);
+            });
         }
-        return usersDto;
+    }
+
+    /**
+     * Items and requests of the user are removed by ON DELETE CASCADE in the database,
+     * which Hibernate does not see, so their cache entries are evicted once the deletion commits.
+     */
+    private List<Long> evictDeletedWithUser(Long userId) {
+        List<Long> itemIds = userRepository.findItemIdsDeletedWithUser(userId);
+        List<Long> requestIds = userRepository.findRequestIdsDeletedWithUser(userId);
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                itemIds.forEach(itemId -> cache.evict(Item.class, itemId));
+                requestIds.forEach(requestId -> cache.evict(ItemRequest.class, requestId));
+            }
+        });
+        return itemIds;
     }
 
     private User checkUserId(Long userId) {
@@ -88,15 +135,16 @@ public class UserServiceImpl implements UserService {
         }
     }
 
-    private boolean checkEmail(String email, Long userId) {
-        for (User user : userRepository.findAll()) {
-            if (user.getEmail().equals(email)) {
-                if (Objects.equals(user.getId(), userId)) {
-                    continue;
-                }
-                return true;
+    private User saveUser(User user) {
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            if (message != null && message.toUpperCase().contains(EMAIL_CONSTRAINT)) {
+                log.info("email " + user.getEmail() + " already exist");
+                throw new EmailAlreadyExistException("email " + user.getEmail() + " already exist");
             }
+            throw e;
         }
-        return false;
     }
 }
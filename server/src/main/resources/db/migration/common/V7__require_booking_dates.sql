@@ -0,0 +1,3 @@
+ALTER TABLE bookings ALTER COLUMN start_date SET NOT NULL;
+
+ALTER TABLE bookings ALTER COLUMN end_date SET NOT NULL;
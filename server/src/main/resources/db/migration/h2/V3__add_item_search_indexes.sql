@@ -0,0 +1 @@
+-- H2 has no trigram indexes: item search runs the same ILIKE query as a scan over items.
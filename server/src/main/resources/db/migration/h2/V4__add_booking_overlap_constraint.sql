@@ -0,0 +1 @@
+-- H2 has no exclusion constraints: overlapping approvals are prevented by per-item locks in BookingServiceImpl.
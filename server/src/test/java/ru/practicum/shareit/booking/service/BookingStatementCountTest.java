@@ -0,0 +1,116 @@
+package ru.practicum.shareit.booking.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.stereotype.Component;
+import org.springframework.stereotype.Controller;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Counts the statements Hibernate prepares for a booking page: a page of 50 bookings, each with its own item
+ * and booker, must take as many statements as a page of one booking, or the page has an N+1 query.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true",
+        includeFilters = @ComponentScan.Filter(type = FilterType.ANNOTATION, classes = Component.class),
+        excludeFilters = @ComponentScan.Filter(type = FilterType.ANNOTATION, classes = Controller.class))
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class BookingStatementCountTest {
+    private static final int PAGE = 50;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void ownerPageTakesConstantStatements() {
+        User owner = user("owner");
+        User otherOwner = user("other");
+        book(otherOwner, 1);
+        book(owner, PAGE);
+
+        long one = count(() -> bookingService.findAllBookingsByOwner(otherOwner.getId(), "ALL", 0, PAGE), 1);
+        long page = count(() -> bookingService.findAllBookingsByOwner(owner.getId(), "ALL", 0, PAGE), PAGE);
+
+        assertEquals(one, page, "statements for a page of " + PAGE + " bookings");
+    }
+
+    @Test
+    void bookerPageTakesConstantStatements() {
+        User owner = user("owner");
+        User booker = user("booker");
+        User otherBooker = user("other");
+        for (int i = 0; i < PAGE; i++) {
+            booking(item(owner, "item" + i), booker, i);
+        }
+        booking(item(owner, "single"), otherBooker, 0);
+
+        long one = count(() -> bookingService.findAllBookingsByUser(otherBooker.getId(), "ALL", 0, PAGE), 1);
+        long page = count(() -> bookingService.findAllBookingsByUser(booker.getId(), "ALL", 0, PAGE), PAGE);
+
+        assertEquals(one, page, "statements for a page of " + PAGE + " bookings");
+    }
+
+    /**
+     * Runs the query with empty first-level and second-level caches and returns the prepared statement count.
+     */
+    private long count(Supplier<Collection<BookingResponseDto>> query, int expectedSize) {
+        entityManager.flush();
+        entityManager.clear();
+        entityManager.getEntityManager().getEntityManagerFactory().getCache().evictAll();
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        assertEquals(expectedSize, query.get().size());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void book(User owner, int count) {
+        for (int i = 0; i < count; i++) {
+            booking(item(owner, owner.getName() + i), user(owner.getName() + "-booker" + i), i);
+        }
+    }
+
+    private User user(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@example.com");
+        return entityManager.persist(user);
+    }
+
+    private Item item(User owner, String name) {
+        Item item = new Item();
+        item.setName(name);
+        item.setDescription(name);
+        item.setAvailable(true);
+        item.setOwner(owner);
+        return entityManager.persist(item);
+    }
+
+    private void booking(Item item, User booker, int days) {
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStart(LocalDateTime.now().plusDays(days + 1));
+        booking.setEnd(LocalDateTime.now().plusDays(days + 2));
+        booking.setStatus(Status.WAITING);
+        entityManager.persist(booking);
+    }
+}
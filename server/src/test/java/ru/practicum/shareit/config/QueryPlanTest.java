@@ -0,0 +1,198 @@
+package ru.practicum.shareit.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.Status;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Calls every query method declared on the repositories and runs EXPLAIN for the SQL Hibernate sends,
+ * so the check follows the queries as they change. A query whose plan reads a whole table fails the test.
+ * Against PostgreSQL sequential scans are disabled for the test transaction, so a "Seq Scan" in the plan
+ * means that no index can serve the query at all.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.shareit.config.RecordingStatementInspector")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class QueryPlanTest {
+    /**
+     * H2 has no trigram indexes, so substring search scans items; it does not read an index in order under
+     * a join, so the newest requests are sorted rather than read from ix_requests_created; the user export
+     * reads every user by design.
+     */
+    private static final Set<String> H2_SCANS = Set.of("ItemRepository.search", "ItemRepository.searchFree",
+            "ItemRequestRepository.findAll", "UserRepository.streamAll");
+
+    @Autowired
+    private ApplicationContext context;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void repositoryQueriesUseIndexes() {
+        Map<String, List<String>> statements = recordStatements();
+        Map<String, String> fullScans = jdbcTemplate.execute((ConnectionCallback<Map<String, String>>) connection ->
+                findFullScans(connection, statements));
+
+        assertFalse(statements.isEmpty(), "no repository queries found");
+        assertTrue(fullScans.isEmpty(), () -> "queries reading a whole table: " + fullScans);
+    }
+
+    private Map<String, List<String>> recordStatements() {
+        Repositories repositories = new Repositories(context);
+        Map<String, List<String>> statements = new LinkedHashMap<>();
+        for (Class<?> domainType : repositories) {
+            RepositoryInformation information = repositories.getRepositoryInformationFor(domainType).orElseThrow();
+            Object repository = repositories.getRepositoryFor(domainType).orElseThrow();
+            Class<?> repositoryInterface = information.getRepositoryInterface();
+            Method[] methods = repositoryInterface.getDeclaredMethods();
+            Arrays.sort(methods, Comparator.comparing(Method::getName));
+            for (Method method : methods) {
+                if (method.isDefault() || Modifier.isStatic(method.getModifiers())) {
+                    continue;
+                }
+                String name = repositoryInterface.getSimpleName() + "." + method.getName();
+                RecordingStatementInspector.drain();
+                invoke(repository, method);
+                List<String> sql = RecordingStatementInspector.drain();
+                assertFalse(sql.isEmpty(), name + " sent no SQL");
+                statements.put(name, sql);
+            }
+        }
+        return statements;
+    }
+
+    private static void invoke(Object repository, Method method) {
+        Object[] args = Arrays.stream(method.getParameterTypes()).map(QueryPlanTest::sample).toArray();
+        try {
+            Object result = method.invoke(repository, args);
+            if (result instanceof Stream) {
+                try (Stream<?> stream = (Stream<?>) result) {
+                    stream.forEach(row -> {
+                    });
+                }
+            }
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("cannot call " + method, e);
+        }
+    }
+
+    private static Object sample(Class<?> type) {
+        if (type == Long.class || type == long.class) {
+            return 1L;
+        }
+        if (type == Integer.class || type == int.class) {
+            return 1;
+        }
+        if (type == Boolean.class || type == boolean.class) {
+            return true;
+        }
+        if (type == String.class) {
+            return "%text%";
+        }
+        if (type == LocalDateTime.class) {
+            return LocalDateTime.now();
+        }
+        if (type == Status.class) {
+            return Status.APPROVED;
+        }
+        if (type == Pageable.class) {
+            return PageRequest.of(0, 10);
+        }
+        if (Collection.class.isAssignableFrom(type)) {
+            return List.of(1L, 2L, 3L);
+        }
+        throw new IllegalArgumentException("no sample value for " + type);
+    }
+
+    private static Map<String, String> findFullScans(Connection connection, Map<String, List<String>> statements)
+            throws SQLException {
+        boolean postgres = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("postgres");
+        if (postgres) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET LOCAL enable_seqscan = off");
+            }
+        }
+        Map<String, String> fullScans = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> query : statements.entrySet()) {
+            if (!postgres && H2_SCANS.contains(query.getKey())) {
+                continue;
+            }
+            for (String sql : query.getValue()) {
+                String plan = postgres ? explainPostgres(connection, sql) : explainH2(connection, sql);
+                if (postgres ? plan.contains("Seq Scan") : plan.contains(".tableScan")) {
+                    fullScans.put(query.getKey(), plan);
+                }
+            }
+        }
+        return fullScans;
+    }
+
+    private static String explainH2(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 1; i <= statement.getParameterMetaData().getParameterCount(); i++) {
+                statement.setNull(i, Types.NULL);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return read(resultSet);
+            }
+        }
+    }
+
+    /**
+     * Plans the statement without parameter values; needs PostgreSQL 16 or later.
+     */
+    private static String explainPostgres(Connection connection, String sql) throws SQLException {
+        StringBuilder numbered = new StringBuilder();
+        int parameter = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++parameter);
+            } else {
+                numbered.append(c);
+            }
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("EXPLAIN (GENERIC_PLAN) " + numbered)) {
+            return read(resultSet);
+        }
+    }
+
+    private static String read(ResultSet resultSet) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        while (resultSet.next()) {
+            plan.append(resultSet.getString(1)).append('\n');
+        }
+        return plan.toString();
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps every SQL statement Hibernate prepares, so tests can check the SQL the repositories really send.
+ */
+public class RecordingStatementInspector implements StatementInspector {
+    private static final List<String> STATEMENTS = new ArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        synchronized (STATEMENTS) {
+            STATEMENTS.add(sql);
+        }
+        return sql;
+    }
+
+    static List<String> drain() {
+        synchronized (STATEMENTS) {
+            List<String> statements = new ArrayList<>(STATEMENTS);
+            STATEMENTS.clear();
+            return statements;
+        }
+    }
+}